@@ -0,0 +1,256 @@
+package analysis;
+
+import java.time.LocalTime;
+
+public class Integration {
+	/**
+	 * Describes motion along a track, given by the system x' = v * c(x) and v' = a(x).
+	 * Output is written to given array on the form [c(x), a(x)].
+	 */
+	public interface Track {
+		public void eval(double x, double[] out);
+	}
+	
+	/**
+	 * Advances state [x, v] of given track by one step of size h, in place.
+	 * Work array must hold at least three elements, initialized to NaN before the first step.
+	 */
+	public interface Stepper {
+		public void step(Track track, double[] state, double h, double[] work);
+	}
+	
+	
+	//Performs one iteration of Eulers' Method
+	public static double eulerMethod(double initValue, double expr, double step) {
+		return initValue + expr * step;
+	}
+	
+	/**
+	 * Performs one step of Eulers' method along given track.
+	 * Velocity is updated first, and the new velocity is used to advance x (semi-implicit Euler).
+	 * The track is parametrized by x with velocity dependent forces, so energy is not conserved and still drifts with the step size.
+	 */
+	public static void eulerStep(Track track, double[] state, double h, double[] work) {
+		track.eval(state[0], work);
+		state[1] = eulerMethod(state[1], work[1], h);
+		state[0] = eulerMethod(state[0], state[1] * work[0], h);
+	}
+	
+	/**
+	 * Performs one step of Heuns' method (improved Euler) along given track.
+	 * An Euler step predicts the end state, and the average of the start and end slopes corrects it.
+	 */
+	public static void heunStep(Track track, double[] state, double h, double[] work) {
+		double x = state[0];
+		double v = state[1];
+		
+		// Slope at start of step
+		track.eval(x, work);
+		double k1x = v * work[0];
+		double k1v = work[1];
+		
+		// Predictor: slope at Euler estimate of end state
+		double v2 = v + h * k1v;
+		track.eval(x + h * k1x, work);
+		double k2x = v2 * work[0];
+		double k2v = work[1];
+		
+		// Corrector: average of slopes
+		state[0] = x + (h / 2d) * (k1x + k2x);
+		state[1] = v + (h / 2d) * (k1v + k2v);
+	}
+	
+	/**
+	 * Performs one step of the classic fourth order Runge-Kutta method along given track.
+	 */
+	public static void rungeKuttaStep(Track track, double[] state, double h, double[] work) {
+		double x = state[0];
+		double v = state[1];
+		
+		// k1 = f(x, v)
+		track.eval(x, work);
+		double k1x = v * work[0];
+		double k1v = work[1];
+		
+		// k2 = f(y + h/2 * k1)
+		double v2 = v + 0.5 * h * k1v;
+		track.eval(x + 0.5 * h * k1x, work);
+		double k2x = v2 * work[0];
+		double k2v = work[1];
+		
+		// k3 = f(y + h/2 * k2)
+		double v3 = v + 0.5 * h * k2v;
+		track.eval(x + 0.5 * h * k2x, work);
+		double k3x = v3 * work[0];
+		double k3v = work[1];
+		
+		// k4 = f(y + h * k3)
+		double v4 = v + h * k3v;
+		track.eval(x + h * k3x, work);
+		double k4x = v4 * work[0];
+		double k4v = work[1];
+		
+		// Weighted average of slopes
+		state[0] = x + (h / 6d) * (k1x + 2*k2x + 2*k3x + k4x);
+		state[1] = v + (h / 6d) * (k1v + 2*k2v + 2*k3v + k4v);
+	}
+	
+	/**
+	 * Performs one step of the velocity Verlet method (kick-drift-kick) along given track.
+	 * Velocity is advanced half a step, x is moved along the track at that velocity, and the velocity is completed using the new x.
+	 * The drift follows the curve using the direction at its midpoint, keeping the step second order.
+	 * Work array must hold at least three elements, the track output at the current x is carried over between steps.
+	 * Set work[2] to NaN before the first step.
+	 */
+	public static void verletStep(Track track, double[] state, double h, double[] work) {
+		double x = state[0];
+		
+		// Track output at start of step [c(x), -, a(x)], evaluated only on the first step
+		if (Double.isNaN(work[2])) {
+			track.eval(x, work);
+			work[2] = work[1];
+		}
+		
+		// Kick: half step in velocity
+		double vHalf = state[1] + 0.5 * h * work[2];
+		
+		// Drift: full step along the track
+		track.eval(x + 0.5 * h * vHalf * work[0], work);
+		x = x + h * vHalf * work[0];
+		
+		// Kick: complete velocity using acceleration at the new x, kept for the next step
+		track.eval(x, work);
+		work[2] = work[1];
+		state[0] = x;
+		state[1] = vHalf + 0.5 * h * work[2];
+	}
+	
+	/**
+	 * Attempts one step of the embedded Dormand-Prince 5(4) method along given track.
+	 * Slope must hold the derivative [x', v'] at given state. If the step is accepted, state is
+	 * advanced using the fifth order solution and slope is replaced by the derivative at the new state (first same as last).
+	 * Returns the local error estimate relative to given tolerance, the step is accepted if it does not exceed 1.
+	 * Work array must hold at least two elements.
+	 */
+	public static double dormandPrinceStep(Track track, double[] state, double[] slope, double h, double tolerance, double[] work) {
+		double x = state[0];
+		double v = state[1];
+		double k1x = slope[0];
+		double k1v = slope[1];
+		
+		// k2
+		double v2 = v + h * (k1v/5d);
+		track.eval(x + h * (k1x/5d), work);
+		double k2x = v2 * work[0];
+		double k2v = work[1];
+		
+		// k3
+		double v3 = v + h * (3d/40d*k1v + 9d/40d*k2v);
+		track.eval(x + h * (3d/40d*k1x + 9d/40d*k2x), work);
+		double k3x = v3 * work[0];
+		double k3v = work[1];
+		
+		// k4
+		double v4 = v + h * (44d/45d*k1v - 56d/15d*k2v + 32d/9d*k3v);
+		track.eval(x + h * (44d/45d*k1x - 56d/15d*k2x + 32d/9d*k3x), work);
+		double k4x = v4 * work[0];
+		double k4v = work[1];
+		
+		// k5
+		double v5 = v + h * (19372d/6561d*k1v - 25360d/2187d*k2v + 64448d/6561d*k3v - 212d/729d*k4v);
+		track.eval(x + h * (19372d/6561d*k1x - 25360d/2187d*k2x + 64448d/6561d*k3x - 212d/729d*k4x), work);
+		double k5x = v5 * work[0];
+		double k5v = work[1];
+		
+		// k6
+		double v6 = v + h * (9017d/3168d*k1v - 355d/33d*k2v + 46732d/5247d*k3v + 49d/176d*k4v - 5103d/18656d*k5v);
+		track.eval(x + h * (9017d/3168d*k1x - 355d/33d*k2x + 46732d/5247d*k3x + 49d/176d*k4x - 5103d/18656d*k5x), work);
+		double k6x = v6 * work[0];
+		double k6v = work[1];
+		
+		// Fifth order solution, k7 is the slope at the new state
+		double xNew = x + h * (35d/384d*k1x + 500d/1113d*k3x + 125d/192d*k4x - 2187d/6784d*k5x + 11d/84d*k6x);
+		double vNew = v + h * (35d/384d*k1v + 500d/1113d*k3v + 125d/192d*k4v - 2187d/6784d*k5v + 11d/84d*k6v);
+		track.eval(xNew, work);
+		double k7x = vNew * work[0];
+		double k7v = work[1];
+		
+		// Difference between fifth and fourth order solutions
+		double errX = h * (71d/57600d*k1x - 71d/16695d*k3x + 71d/1920d*k4x - 17253d/339200d*k5x + 22d/525d*k6x - 1d/40d*k7x);
+		double errV = h * (71d/57600d*k1v - 71d/16695d*k3v + 71d/1920d*k4v - 17253d/339200d*k5v + 22d/525d*k6v - 1d/40d*k7v);
+		
+		// Error relative to mixed absolute and relative tolerance (root mean square)
+		double scaledX = errX / (tolerance + tolerance * Math.max(Math.abs(x), Math.abs(xNew)));
+		double scaledV = errV / (tolerance + tolerance * Math.max(Math.abs(v), Math.abs(vNew)));
+		double error = Math.sqrt((scaledX*scaledX + scaledV*scaledV) / 2d);
+		
+		// Accept step
+		if (error <= 1d) {
+			state[0] = xNew;
+			state[1] = vNew;
+			slope[0] = k7x;
+			slope[1] = k7v;
+		}
+		
+		return error;
+	}
+	
+	/**
+	 * Interpolates the state within a step of size h, given the state and derivative [x', v'] at both ends,
+	 * using cubic Hermite polynomials. Theta is the fraction of the step, from 0 at its' start to 1 at its' end.
+	 */
+	public static void hermite(double[] start, double[] startSlope, double[] end, double[] endSlope, double h, double theta, double[] out) {
+		double theta2 = theta * theta;
+		double theta3 = theta2 * theta;
+		double h00 = 2*theta3 - 3*theta2 + 1;
+		double h10 = theta3 - 2*theta2 + theta;
+		double h01 = -2*theta3 + 3*theta2;
+		double h11 = theta3 - theta2;
+		
+		for (int i = 0; i < 2; i++)
+			out[i] = h00*start[i] + h10*h*startSlope[i] + h01*end[i] + h11*h*endSlope[i];
+	}
+	
+	/**
+	 * Returns the fraction of a step of size h at which the interpolated x reaches given value (see {@link #hermite}).
+	 * The value must lie between x at the start and end of the step. Work array must hold at least two elements.
+	 */
+	public static double hermiteCrossing(double[] start, double[] startSlope, double[] end, double[] endSlope, double h, double x, double[] work) {
+		double lower = 0;
+		double upper = 1;
+		
+		// Bisection, until the fraction no longer changes
+		for (int i = 0; i < 60; i++) {
+			double theta = 0.5 * (lower + upper);
+			hermite(start, startSlope, end, endSlope, h, theta, work);
+			if (work[0] < x)
+				lower = theta;
+			else
+				upper = theta;
+		}
+		return upper;
+	}
+	
+	public static void main(String[] args) {
+		//Initial values
+		double iter = 0;
+		double x = 0;
+		double a = 9.81;
+		double v = 0;
+		double dt = 0.000000001;
+		
+		System.out.println(LocalTime.now().toString());
+		
+		while (x < 100) {
+			iter++;
+			v = eulerMethod(v, a, dt);
+			x = eulerMethod(x, v, dt);
+		}
+		
+		System.out.println(LocalTime.now().toString());
+		System.out.println(iter);
+		System.out.println("Total time: " + dt*iter);
+		
+	}
+
+}
@@ -11,6 +11,8 @@ import org.apache.commons.math3.analysis.polynomials.PolynomialFunctionLagrangeF
 import functions.PolySpline;
 import functions.Polynomial;
 import parsers.Data;
+import parsers.DataRegistry;
+import parsers.Dataset;
 
 
 public class Interpolation {
@@ -51,13 +53,17 @@ public class Interpolation {
 	 * replicating a best-fit curve to the given set of coordinates.
 	 * Input parameters:
 	 *  - String filepath: Absolute filepath to standard Tracker export file (.txt)
+	 *  - int track: Index of the track within the file
 	 */
-	public static PolySpline polynomialSplineInterpolation(File file) {
-		//Parse tracking data from filepath to two arrays of doubles.
-		double[][] fileData = Data.parseFile(file);
+	public static PolySpline polynomialSplineInterpolation(File file, int track) {
+		//Use tracking data of file if already parsed
+		Dataset dataset = DataRegistry.peek(file, track);
+		if (dataset != null)
+			return polynomialSplineInterpolation(dataset.getX(), dataset.getY());
 
-		//Perform interpolation
-		return polynomialSplineInterpolation(fileData[1], fileData[2]);
+		//Otherwise stream nodes from file, without holding its' data
+		double[][] nodes = Data.equidistantNodes(file, track, POLY_SPLINE_NODES);
+		return new PolySpline(new SplineInterpolator().interpolate(nodes[0], nodes[1]));
 	}
 	
 	
@@ -84,6 +90,14 @@ public class Interpolation {
 		double[] xReduced = Data.reduceArray(x, indices);
 		double[] yReduced = Data.reduceArray(y, indices);
 		
+		//Perform interpolation, over the domain of all x coordinates
+		return polynomialInterpolation(xReduced, yReduced, new double[] { x[0], x[x.length - 1] });
+	}
+	
+	/*
+	 * Returns the N-1 degree polynomial through given nodes, defined on given domain.
+	 */
+	private static Polynomial polynomialInterpolation(double[] xReduced, double[] yReduced, double[] domain) {
 		//Perform interpolation
 		PolynomialFunctionLagrangeForm rawPolynomial = new PolynomialFunctionLagrangeForm(xReduced, yReduced);
 		
@@ -100,9 +114,6 @@ public class Interpolation {
 		//Represent coefficients as a primitive array
 		double[] coeffArray =  coeffList.stream().mapToDouble(doub -> doub.doubleValue()).toArray();
 		
-		//Get function domain
-		double[] domain = new double[] { x[0], x[x.length - 1] };
-		
 		//Return a Polynomial function
 		return new Polynomial(coeffArray, domain);
 	}
@@ -112,18 +123,22 @@ public class Interpolation {
 	 * NOTE: Arrays of x and y coordinates must be of equal length
 	 * Input parameters:
 	 *  - String filepath: Absolute filepath to standard Tracker export file (.txt)
+	 *  - int track: Index of the track within the file
 	 */
-	public static Polynomial polynomialInterpolation(File file) {
-		//Parse tracking data from filepath to two arrays of doubles.
-		double[][] fileData = Data.parseFile(file);
-		
-		//Return coefficient array from interpolation
-		return polynomialInterpolation(fileData[1], fileData[2]);
+	public static Polynomial polynomialInterpolation(File file, int track) {
+		//Use tracking data of file if already parsed
+		Dataset dataset = DataRegistry.peek(file, track);
+		if (dataset != null)
+			return polynomialInterpolation(dataset.getX(), dataset.getY());
+		
+		//Otherwise stream nodes and domain from file, without holding its' data
+		double[][] nodes = Data.chebyshevNodes(file, track, POLYNOMIAL_NODES);
+		return polynomialInterpolation(nodes[0], nodes[1], nodes[2]);
 	}
 	
 	
 	public static void main(String[] args) throws FileNotFoundException {
-		PolySpline polySpline = polynomialSplineInterpolation(new File("C:\\Users\\Patrik\\git\\Patrik-Forked\\Physics Plotter\\src\\imports\\mass_A.txt"));
+		PolySpline polySpline = polynomialSplineInterpolation(new File("C:\\Users\\Patrik\\git\\Patrik-Forked\\Physics Plotter\\src\\imports\\mass_A.txt"), 0);
 		
 		for (double x = 0.132; x < 1.44; x += 0.001) {
 			System.out.printf("x: %.3f \t\t y: %s\n", x, polySpline.eval(x));
@@ -0,0 +1,279 @@
+package cli;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import enums.Inertia;
+import enums.Integration;
+import enums.Interpolation;
+import enums.Outcome;
+import parsers.DataRegistry;
+import simulation.Simulation;
+import simulation.SimulationResult;
+import simulation.TraceConfig;
+import simulation.TraceResult;
+
+/**
+ * Command line entry point, tracing every track of every Tracker export (.txt) in a folder using the same settings.
+ * Tracks are traced in parallel, one per available core. For every track the computed channels are written
+ * to a tab separated file in the output folder, along with a summary of all traces.
+ */
+public class BatchRunner {
+	private static final String USAGE = String.join("\n",
+			"Usage: BatchRunner <input folder> [options]",
+			"Options:",
+			"  --output <folder>         Output folder (default: <input folder>/traces)",
+			"  --interpolation <type>    " + Arrays.toString(Interpolation.values()) + " (default: POLYNOMIAL_SPLINE)",
+			"  --integration <type>      " + Arrays.toString(Integration.values()) + " (default: EULER_METHOD)",
+			"  --inertia <type>          " + Arrays.toString(Inertia.values()) + " (default: POINT_OF_MASS)",
+			"  --step <seconds>          Integration step size (default: 0.001)",
+			"  --tolerance <value>       Tolerance of adaptive integration (default: " + TraceConfig.TOLERANCE + ")",
+			"  --mass <kg>               Mass of rolling object (default: 1)",
+			"  --initv <m/s>             Initial velocity (default: 0)",
+			"  --minx <m>                Start x-coordinate (default: start of track)",
+			"  --maxx <m>                End x-coordinate (default: end of track)",
+			"  --max-iterations <n>      Iteration limit per trace (default: " + TraceConfig.MAX_ITERATIONS + ")",
+			"  --max-time <seconds>      Simulated time limit per trace (default: " + TraceConfig.MAX_TIME + ")",
+			"  --threads <n>             Number of parallel traces (default: available cores)");
+	private static final String SUMMARY_HEADER = String.join("\t",
+			"File", "Track", "Outcome", "Integration", "Interpolation", "Iterations", "Rejected steps",
+			"Total time (s)", "Energy difference (%)", "Computation time (s)", "Error");
+	
+	
+	public static void main(String[] args) {
+		// Default settings
+		File input = null;
+		File output = null;
+		TraceConfig config = new TraceConfig(null, Integration.EULER_METHOD, Interpolation.POLYNOMIAL_SPLINE, Inertia.POINT_OF_MASS,
+											 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, 0.001);
+		int threads = Runtime.getRuntime().availableProcessors();
+		
+		// Parse arguments
+		try {
+			for (int i = 0; i < args.length; i++) {
+				String arg = args[i];
+				if (!arg.startsWith("--")) {
+					if (input != null)
+						throw new IllegalArgumentException("Only one input folder may be given.");
+					input = new File(arg);
+					continue;
+				}
+				if (arg.equals("--help"))
+					throw new IllegalArgumentException("");
+				if (i + 1 >= args.length)
+					throw new IllegalArgumentException(String.format("Missing value for option \"%s\".", arg));
+				
+				String value = args[++i];
+				switch (arg) {
+				case "--output":			output = new File(value); break;
+				case "--interpolation":		config = config.withInterpolation(parseEnum(Interpolation.class, value)); break;
+				case "--integration":		config = config.withIntegration(parseEnum(Integration.class, value)); break;
+				case "--inertia":			config = config.withInertia(parseEnum(Inertia.class, value)); break;
+				case "--step":				config = config.withStep(parseDouble(value)); break;
+				case "--tolerance":			config = config.withTolerance(parseDouble(value)); break;
+				case "--mass":				config = config.withMass(parseDouble(value)); break;
+				case "--initv":				config = config.withInitV(parseDouble(value)); break;
+				case "--minx":				config = config.withMinX(parseDouble(value)); break;
+				case "--maxx":				config = config.withMaxX(parseDouble(value)); break;
+				case "--max-iterations":	config = config.withMaxIterations(Long.parseLong(value)); break;
+				case "--max-time":			config = config.withMaxTime(parseDouble(value)); break;
+				case "--threads":			threads = Integer.parseInt(value); break;
+				default:
+					throw new IllegalArgumentException(String.format("Unknown option \"%s\".", arg));
+				}
+			}
+			
+			// Validate arguments
+			if (input == null  ||  !input.isDirectory())
+				throw new IllegalArgumentException("An existing input folder must be given.");
+			if (threads <= 0)
+				throw new IllegalArgumentException("Number of threads must be positive.");
+		} catch (IllegalArgumentException e) {
+			if (!e.getMessage().isEmpty())
+				System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+			return;
+		}
+		
+		// Run batch
+		if (output == null)
+			output = new File(input, "traces");
+		
+		try {
+			int failed = run(input, output, config, threads);
+			System.exit(failed == 0 ? 0 : 1);
+		} catch (IOException e) {
+			System.err.println("Could not write output: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	/**
+	 * Traces every Tracker export in given input folder using given configuration, writing results to given output folder.
+	 * Returns the number of traces that could not be completed.
+	 */
+	public static int run(File input, File output, TraceConfig config, int threads) throws IOException {
+		// List tracking files, in order of name
+		File[] files = input.listFiles((folder, name) -> name.toLowerCase(Locale.ROOT).endsWith(".txt"));
+		if (files == null)
+			throw new IOException("Could not list files in " + input);
+		Arrays.sort(files);
+		Files.createDirectories(output.toPath());
+		
+		// Trace all tracks of all files in parallel. Files whose header cannot be read are traced as a single failing track
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<TraceConfig> configs = new ArrayList<>();
+		List<String> trackNames = new ArrayList<>();
+		List<Future<String[]>> rows = new ArrayList<>();
+		try {
+			for (File file : files) {
+				List<String> names;
+				try {
+					names = DataRegistry.getTrackNames(file);
+				} catch (RuntimeException e) {
+					names = Collections.singletonList("");
+				}
+				for (int track = 0; track < names.size(); track++) {
+					TraceConfig trackConfig = config.withFile(file).withTrack(track);
+					String trackName = names.get(track);
+					String outputName = (names.size() == 1) ? "" : "_" + trackName;
+					configs.add(trackConfig);
+					trackNames.add(trackName);
+					rows.add(executor.submit(() -> trace(trackConfig, trackName, output, outputName)));
+				}
+			}
+			
+			// Write summary in order of file names and tracks
+			int failed = 0;
+			try (BufferedWriter writer = Files.newBufferedWriter(new File(output, "summary.txt").toPath(), StandardCharsets.UTF_8)) {
+				writer.write(SUMMARY_HEADER);
+				writer.newLine();
+				for (int i = 0; i < rows.size(); i++) {
+					String[] row;
+					try {
+						row = rows.get(i).get();
+					} catch (ExecutionException e) {
+						row = errorRow(configs.get(i).getFile(), trackNames.get(i), e.getCause());
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IOException("Interrupted while tracing.", e);
+					}
+					if (!row[2].equals(Outcome.COMPLETED.TEXT))
+						failed++;
+					writer.write(String.join("\t", row));
+					writer.newLine();
+				}
+			}
+			
+			System.out.printf("Traced %d tracks of %d files, %d not completed. Results written to %s%n", rows.size(), files.length, failed, output);
+			return failed;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Traces a single track, writing its' channels to the output folder, named after the file followed by given suffix.
+	 * Returns the summary row of the trace.
+	 */
+	private static String[] trace(TraceConfig config, String trackName, File output, String suffix) throws IOException {
+		File file = config.getFile();
+		SimulationResult result;
+		try {
+			result = Simulation.run(config);
+		} catch (RuntimeException e) {
+			System.out.printf("Failed: %s %s (%s)%n", file.getName(), trackName, e.getMessage());
+			return errorRow(file, trackName, e);
+		}
+		
+		// Write channels, one column per channel
+		String name = file.getName().substring(0, file.getName().length() - ".txt".length());
+		writeChannels(result.getData(), new File(output, name + suffix + "_trace.txt"));
+		System.out.printf("Finished: %s %s (%s)%n", file.getName(), trackName, result.getOutcome().TEXT);
+		
+		return new String[] {
+				file.getName(),
+				trackName,
+				result.getOutcome().TEXT,
+				config.getIntegration().name(),
+				config.getInterpolation().name(),
+				String.valueOf(result.getSteps()),
+				String.valueOf(result.getRejectedSteps()),
+				String.valueOf(result.getTotalTime()),
+				String.valueOf(result.getEnergyDifference()),
+				String.valueOf(result.getComputationTime().toMillis() / 1000d),
+				""};
+	}
+	
+	/**
+	 * Writes all computed channels of given result as tab separated columns, with channel names as header.
+	 */
+	private static void writeChannels(TraceResult data, File file) throws IOException {
+		// Computed channels of equal length, in order of channel list
+		List<String> keys = new ArrayList<>();
+		List<double[]> columns = new ArrayList<>();
+		for (String key : Simulation.CHANNELS) {
+			if (!data.hasColumn(key)) continue;
+			keys.add(key);
+			columns.add(data.getColumn(key));
+		}
+		int n = columns.isEmpty() ? 0 : columns.get(0).length;
+		
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(String.join("\t", keys));
+			writer.newLine();
+			
+			StringBuilder line = new StringBuilder();
+			for (int i = 0; i < n; i++) {
+				line.setLength(0);
+				for (int j = 0; j < columns.size(); j++) {
+					if (j > 0) line.append('\t');
+					line.append(columns.get(j)[i]);
+				}
+				writer.write(line.toString());
+				writer.newLine();
+			}
+		}
+	}
+	
+	
+	// Helpers
+	/**
+	 * Returns the summary row of a track that could not be traced.
+	 */
+	private static String[] errorRow(File file, String trackName, Throwable error) {
+		String message = String.valueOf(error.getMessage()).replace('\t', ' ').replace('\n', ' ');
+		return new String[] {file.getName(), trackName, "Failed", "", "", "", "", "", "", "", message};
+	}
+	
+	/**
+	 * Parses an enum constant by name, ignoring case.
+	 */
+	private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+		for (E constant : type.getEnumConstants())
+			if (constant.name().equalsIgnoreCase(value))
+				return constant;
+		
+		throw new IllegalArgumentException(String.format("Unknown %s: \"%s\".", type.getSimpleName(), value));
+	}
+	
+	/**
+	 * Parses a decimal number, accepting both decimal points and commas.
+	 */
+	private static double parseDouble(String value) {
+		return Double.parseDouble(value.replace(',', '.'));
+	}
+}
@@ -8,7 +8,9 @@ public enum Integration {
 	// Integration types
 	EULER_METHOD			(0, "Eulers method"),
 	EULER_IMPROVED_METHOD	(1, "Eulers improved method"),
-	RUNGE_KUTTA_METHOD		(2, "Runge-Kutta method");
+	RUNGE_KUTTA_METHOD		(2, "Runge-Kutta method"),
+	DORMAND_PRINCE_METHOD	(3, "Dormand-Prince method"),
+	VELOCITY_VERLET_METHOD	(4, "Velocity Verlet method");
 	
 	// Constants
 	public final int ID;
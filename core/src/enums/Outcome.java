@@ -0,0 +1,56 @@
+package enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public enum Outcome {
+	// Trace outcomes
+	COMPLETED			(0, "Completed"),
+	REVERSED			(1, "Stopped, velocity reversed"),
+	STALLED				(2, "Stalled, step size underflow"),
+	DIVERGED			(3, "Diverged, invalid state"),
+	ENERGY_DIVERGED		(4, "Diverged, energy not conserved"),
+	ITERATION_LIMIT		(5, "Iteration limit reached"),
+	TIME_LIMIT			(6, "Time limit reached");
+	
+	// Constants
+	public final int ID;
+	public final String TEXT;
+	
+	// Constructor
+	private Outcome(int ID, String TEXT) {
+		this.ID = ID;
+		this.TEXT = TEXT;
+	}
+	
+	// ID Getters
+	public static int toID(String TEXT) {
+		for (Outcome outcome : Outcome.values())
+			if (outcome.TEXT == TEXT) return outcome.ID;
+		
+		throw new IllegalArgumentException(String.format("Outcome enum with TEXT: \"%s\" does not exist.", TEXT));
+	}
+	
+	// TEXT Getters
+	public static String toText(int ID) {
+		for (Outcome outcome : Outcome.values())
+			if (outcome.ID == ID) return outcome.TEXT;
+		
+		throw new IllegalArgumentException(String.format("Outcome enum with ID: \"%s\" does not exist.", ID));
+	}
+
+	// List getters
+	public static List<String> getTextValues() {
+		return Arrays.stream(values()).map(outcome -> outcome.TEXT).collect(Collectors.toList());
+	}
+	public static List<Outcome> getElements() {
+		return Arrays.stream(values()).collect(Collectors.toList());
+	}
+	
+	// toString
+	@Override
+	public String toString() {
+		return TEXT;
+	}
+}
@@ -0,0 +1,59 @@
+package enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public enum Parameter {
+	// Trace parameters, which may be swept
+	FILE			(0, "File"),
+	INTEGRATION		(1, "Integration"),
+	INTERPOLATION	(2, "Interpolation"),
+	INERTIA			(3, "Inertia"),
+	MASS			(4, "Mass"),
+	INIT_V			(5, "Initial velocity"),
+	STEP			(6, "Step size"),
+	TOLERANCE		(7, "Tolerance"),
+	MIN_X			(8, "Start X"),
+	MAX_X			(9, "End X");
+	
+	// Constants
+	public final int ID;
+	public final String TEXT;
+	
+	// Constructor
+	private Parameter(int ID, String TEXT) {
+		this.ID = ID;
+		this.TEXT = TEXT;
+	}
+	
+	// ID Getters
+	public static int toID(String TEXT) {
+		for (Parameter parameter : Parameter.values())
+			if (parameter.TEXT == TEXT) return parameter.ID;
+		
+		throw new IllegalArgumentException(String.format("Parameter enum with TEXT: \"%s\" does not exist.", TEXT));
+	}
+	
+	// TEXT Getters
+	public static String toText(int ID) {
+		for (Parameter parameter : Parameter.values())
+			if (parameter.ID == ID) return parameter.TEXT;
+		
+		throw new IllegalArgumentException(String.format("Parameter enum with ID: \"%s\" does not exist.", ID));
+	}
+	
+	// List getters
+	public static List<String> getTextValues() {
+		return Arrays.stream(values()).map(parameter -> parameter.TEXT).collect(Collectors.toList());
+	}
+	public static List<Parameter> getElements() {
+		return Arrays.stream(values()).collect(Collectors.toList());
+	}
+	
+	// toString - Values to be displayed in ComboBox
+	@Override
+	public String toString() {
+		return TEXT;
+	}
+}
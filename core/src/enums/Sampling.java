@@ -0,0 +1,52 @@
+package enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public enum Sampling {
+	// Downsampling of graph series
+	EQUIDISTANT		(0, "Equidistant"),
+	LARGEST_TRIANGLE(1, "Largest triangle"),
+	MIN_MAX			(2, "Min / max");
+	
+	// Constants
+	public final int ID;
+	public final String TEXT;
+	
+	// Constructor
+	private Sampling(int ID, String TEXT) {
+		this.ID = ID;
+		this.TEXT = TEXT;
+	}
+	
+	// ID Getters
+	public static int toID(String TEXT) {
+		for (Sampling sampling : Sampling.values())
+			if (sampling.TEXT == TEXT) return sampling.ID;
+		
+		throw new IllegalArgumentException(String.format("Sampling enum with TEXT: \"%s\" does not exist.", TEXT));
+	}
+	
+	// TEXT Getters
+	public static String toText(int ID) {
+		for (Sampling sampling : Sampling.values())
+			if (sampling.ID == ID) return sampling.TEXT;
+		
+		throw new IllegalArgumentException(String.format("Sampling enum with ID: \"%s\" does not exist.", ID));
+	}
+	
+	// List getters
+	public static List<String> getTextValues() {
+		return Arrays.stream(values()).map(sampling -> sampling.TEXT).collect(Collectors.toList());
+	}
+	public static List<Sampling> getElements() {
+		return Arrays.stream(values()).collect(Collectors.toList());
+	}
+	
+	// toString - Values to be displayed in ComboBox
+	@Override
+	public String toString() {
+		return TEXT;
+	}
+}
@@ -1,6 +1,11 @@
 package functions;
 
 public abstract class AbstractDifferentiable {
+	//Cached derivatives, created on first use
+	private AbstractDifferentiable cachedDerivative;
+	private AbstractDifferentiable cachedDerivativeII;
+	
+	
 	//Evaluation
 	/**
 	 * Evaluates function at given x-value.
@@ -11,14 +16,29 @@ public abstract class AbstractDifferentiable {
 	 * Evaluates first derivative of function at given x-value
 	 */
 	public double evalDerivative(double x) {
-		return derivative().eval(x);
+		if (cachedDerivative == null)
+			cachedDerivative = derivative();
+		return cachedDerivative.eval(x);
 	}
 	
 	/**
 	 * Evaluates second derivative of function at given x-value
 	 */
 	public double evalDerivativeII(double x) {
-		return derivativeII().eval(x);
+		if (cachedDerivativeII == null)
+			cachedDerivativeII = derivativeII();
+		return cachedDerivativeII.eval(x);
+	}
+	
+	/**
+	 * Evaluates function, first and second derivative at given x-value.
+	 * Output is written to given array on the form [f(x), f'(x), f''(x)], allowing the array to be reused.
+	 * Subclasses should override this method to evaluate all three values in a single pass.
+	 */
+	public void evalJet(double x, double[] out) {
+		out[0] = eval(x);
+		out[1] = evalDerivative(x);
+		out[2] = evalDerivativeII(x);
 	}
 	
 	
@@ -36,6 +56,16 @@ public abstract class AbstractDifferentiable {
 	}
 	
 	
+	/**
+	 * Returns an instance of this function suited for evaluation at gradually increasing x-values, e.g. during a trace.
+	 * Implementations may keep lookup state in the returned object, which is safe but slower to share between threads.
+	 * Default implementation returns this function.
+	 */
+	public AbstractDifferentiable cursor() {
+		return this;
+	}
+	
+	
 	//Slope angle and radius of curvature
 	/**
 	 * Returns the slope angle at given point, in radians
@@ -0,0 +1,187 @@
+package functions;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.analysis.polynomials.PolynomialFunction;
+import org.apache.commons.math3.analysis.polynomials.PolynomialSplineFunction;
+import org.apache.commons.math3.exception.OutOfRangeException;
+
+import parsers.Polynomial;
+
+
+public class PolySpline extends AbstractDifferentiable {
+	//Segment boundaries, in strictly increasing order
+	private final double[] knots;
+	//Packed segment coefficients, 'order' coefficients per segment in ascending order of degrees, relative to segment knot
+	private final double[] coefficients;
+	private final int order;
+	private final int segments;
+	private final double[] domain;
+	//Index of the most recently evaluated segment, used as starting point for the next lookup
+	private int segment;
+	
+	
+	/**
+	 * Constructs a PolySpline representing the given Polynomial Spline Function.
+	 * @see analysis.Interpolation
+	 */
+	public PolySpline(PolynomialSplineFunction polySpline) {
+		// Set segment boundaries
+		knots = polySpline.getKnots();
+		segments = knots.length - 1;
+		domain = new double[] { knots[0], knots[segments] };
+		
+		// Find highest number of coefficients in any segment
+		PolynomialFunction[] polynomials = polySpline.getPolynomials();
+		int maxOrder = 1;
+		for (PolynomialFunction polynomial : polynomials)
+			maxOrder = Math.max(maxOrder, polynomial.getCoefficients().length);
+		order = maxOrder;
+		
+		// Pack coefficients, padding with zeros
+		coefficients = new double[segments * order];
+		for (int i = 0; i < segments; i++) {
+			double[] coeffs = polynomials[i].getCoefficients();
+			System.arraycopy(coeffs, 0, coefficients, i * order, coeffs.length);
+		}
+	}
+	
+	/**
+	 * Constructs a PolySpline from packed segment coefficients.
+	 */
+	private PolySpline(double[] knots, double[] coefficients, int order) {
+		this.knots = knots;
+		this.coefficients = coefficients;
+		this.order = order;
+		this.segments = knots.length - 1;
+		this.domain = new double[] { knots[0], knots[segments] };
+	}
+	
+	
+	/*
+	 * Returns the index of the segment containing given point.
+	 * Starts at the previously evaluated segment, making lookups for gradually increasing points amortized O(1).
+	 */
+	private int locate(double x) {
+		//Validate domain
+		if (x < domain[0]  ||  x > domain[1])
+			throw new OutOfRangeException(x, domain[0], domain[1]);
+		
+		//Check previous and next segment before searching
+		int index = segment;
+		if (x < knots[index]  ||  x >= knots[index + 1]) {
+			if (index + 1 < segments  &&  x >= knots[index + 1]  &&  x < knots[index + 2]) {
+				index++;
+			} else {
+				index = Arrays.binarySearch(knots, x);
+				if (index < 0)
+					index = -index - 2;
+				if (index >= segments)
+					index = segments - 1;
+			}
+			segment = index;
+		}
+		
+		return index;
+	}
+	
+	/*
+	 * Returns the function value of the spline polynomial at given point
+	 */
+	@Override
+	public double eval(double x) {
+		int index = locate(x);
+		int offset = index * order;
+		double t = x - knots[index];
+		double value = coefficients[offset + order - 1];
+		
+		for (int i = order - 2; i >= 0; i--)
+			value = (value * t) + coefficients[offset + i];
+		
+		return value;
+	}
+	
+	/*
+	 * Evaluates the spline polynomial, first and second derivative at given point.
+	 * The segment is located once, and evaluated in a single pass of Horner's method.
+	 */
+	@Override
+	public void evalJet(double x, double[] out) {
+		int index = locate(x);
+		int offset = index * order;
+		double t = x - knots[index];
+		double value = coefficients[offset + order - 1];
+		double derivative = 0;
+		double halfDerivativeII = 0;
+		
+		for (int i = order - 2; i >= 0; i--) {
+			halfDerivativeII = (halfDerivativeII * t) + derivative;
+			derivative = (derivative * t) + value;
+			value = (value * t) + coefficients[offset + i];
+		}
+		
+		out[0] = value;
+		out[1] = derivative;
+		out[2] = 2 * halfDerivativeII;
+	}
+
+	/*
+	 * Returns a PolySpline object representing the first derivative of this function
+	 */
+	@Override
+	public PolySpline derivative() {
+		// Derivative of a constant spline is the zero spline
+		if (order == 1)
+			return new PolySpline(knots, new double[segments], 1);
+		
+		// Multiply coefficients with corresponding degree
+		int derivativeOrder = order - 1;
+		double[] derivativeCoefficients = new double[segments * derivativeOrder];
+		for (int i = 0; i < segments; i++)
+			for (int j = 0; j < derivativeOrder; j++)
+				derivativeCoefficients[i * derivativeOrder + j] = coefficients[i * order + j + 1] * (j + 1);
+		
+		return new PolySpline(knots, derivativeCoefficients, derivativeOrder);
+	}
+	
+	/*
+	 * Returns a PolySpline sharing the coefficients of this function, with its own segment cursor.
+	 * Lookups are fastest when each cursor is evaluated at gradually increasing points.
+	 */
+	@Override
+	public PolySpline cursor() {
+		return new PolySpline(knots, coefficients, order);
+	}
+
+	/**Returns the domain of this polynomial spline function*/
+	@Override
+	public double[] getDomain() {
+		return domain;
+	}
+	
+	/*
+	 * Returns a string representing the spline polynomial described by this object
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		
+		for (int i = 0; i < segments; i++) {
+			//Ignore zero padding
+			int degree = order - 1;
+			while (degree > 0  &&  coefficients[i * order + degree] == 0)
+				degree--;
+			
+			//Coefficients in descending order of degrees
+			double[] correctArray = new double[degree + 1];
+			for (int j = 0; j <= degree; j++)
+				correctArray[j] = coefficients[i * order + degree - j];
+			
+			//Append parsed string to StringBuilder object
+			stringBuilder.append(Polynomial.toString(correctArray, true, true) + "\n");
+		}
+		
+		//Return concatinated StringBuilder
+		return stringBuilder.toString();
+	}
+}
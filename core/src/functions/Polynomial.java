@@ -1,8 +1,11 @@
 package functions;
 
 public class Polynomial extends AbstractDifferentiable {
-	private double[] coeffArray;
-	private double[] domain;
+	private final double[] coeffArray;
+	private final double[] domain;
+	//Derivative coefficients, computed once
+	private final double[] derivativeArray;
+	private final double[] derivativeIIArray;
 	
 	
 	/**
@@ -12,6 +15,8 @@ public class Polynomial extends AbstractDifferentiable {
 	public Polynomial(double[] coeffArray, double[] domain) {
 		this.coeffArray = coeffArray;
 		this.domain = domain;
+		this.derivativeArray = parsers.Polynomial.nthDerivative(coeffArray, 1);
+		this.derivativeIIArray = parsers.Polynomial.nthDerivative(coeffArray, 2);
 	}
 	
 	/**
@@ -27,17 +32,35 @@ public class Polynomial extends AbstractDifferentiable {
 		return result;
 	}
 	
+	/**
+	 * Evaluates first derivative of polynomial at given x-value
+	 */
+	@Override
+	public double evalDerivative(double x) {
+		return parsers.Polynomial.eval(derivativeArray, x);
+	}
+	
+	/**
+	 * Evaluates second derivative of polynomial at given x-value
+	 */
+	@Override
+	public double evalDerivativeII(double x) {
+		return parsers.Polynomial.eval(derivativeIIArray, x);
+	}
+	
+	/**
+	 * Evaluates polynomial, first and second derivative in a single pass of Horner's method
+	 */
+	@Override
+	public void evalJet(double x, double[] out) {
+		parsers.Polynomial.evalJet(coeffArray, x, out);
+	}
+	
 	/**
 	 * Returns a Polynomial object, representing the first derivative of given polynomial
 	 */
 	@Override
 	public Polynomial derivative() {
-		double[] derivativeArray = new double[coeffArray.length - 1];
-		
-		//Multiply coefficients with corresponding degree
-		for (int i = 0; i < derivativeArray.length; i++)
-			derivativeArray[i] = coeffArray[i] * (coeffArray.length - i - 1);
-		
 		return new Polynomial(derivativeArray, domain);
 	}
 
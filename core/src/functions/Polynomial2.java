@@ -2,8 +2,11 @@ package functions;
 
 public class Polynomial2 extends AbstractDifferentiable {
 	//Instaice variables
-	private double[] coeffArray;
-	private double[] domain;
+	private final double[] coeffArray;
+	private final double[] domain;
+	//Derivative coefficients, computed once
+	private final double[] derivativeArray;
+	private final double[] derivativeIIArray;
 	
 	
 	//Constructor
@@ -14,6 +17,8 @@ public class Polynomial2 extends AbstractDifferentiable {
 	public Polynomial2(double[] coeffArray, double[] domain) {
 		this.coeffArray = coeffArray;
 		this.domain = domain;
+		this.derivativeArray = parsers.Polynomial.nthDerivative(coeffArray, 1);
+		this.derivativeIIArray = parsers.Polynomial.nthDerivative(coeffArray, 2);
 	}
 	
 	/**
@@ -34,7 +39,7 @@ public class Polynomial2 extends AbstractDifferentiable {
 	 */
 	@Override
 	public double evalDerivative(double x) {
-		return derivative().eval(x);
+		return parsers.Polynomial.eval(derivativeArray, x);
 	}
 	
 	/**
@@ -42,7 +47,15 @@ public class Polynomial2 extends AbstractDifferentiable {
 	 */
 	@Override
 	public double evalDerivativeII(double x) {		
-		return derivativeII().eval(x);
+		return parsers.Polynomial.eval(derivativeIIArray, x);
+	}
+	
+	/**
+	 * Evaluates polynomial, first and second derivative in a single pass of Horner's method
+	 */
+	@Override
+	public void evalJet(double x, double[] out) {
+		parsers.Polynomial.evalJet(coeffArray, x, out);
 	}
 	
 	/**
@@ -58,12 +71,6 @@ public class Polynomial2 extends AbstractDifferentiable {
 	 */
 	@Override
 	public Polynomial2 derivative() {
-		double[] derivativeArray = new double[coeffArray.length - 1];
-		
-		//Multiply coefficients with corresponding degree
-		for (int i = 0; i < derivativeArray.length; i++)
-			derivativeArray[i] = coeffArray[i] * (coeffArray.length - i - 1);
-		
 		return new Polynomial2(derivativeArray, domain);
 	}
 	
@@ -0,0 +1,42 @@
+package parsers;
+
+/**
+ * Consecutive rows of a single track of a Tracker export, delivered while the file is streamed.
+ * Every chunk holds newly allocated columns, which the receiver may keep but must not modify.
+ */
+public final class Chunk {
+	private final int track;
+	private final String trackName;
+	private final long offset;
+	private final double[] t;
+	private final double[] x;
+	private final double[] y;
+	
+	
+	// Constructor
+	Chunk(int track, String trackName, long offset, double[] t, double[] x, double[] y) {
+		this.track = track;
+		this.trackName = trackName;
+		this.offset = offset;
+		this.t = t;
+		this.x = x;
+		this.y = y;
+	}
+	
+	
+	// Getters
+	/** Returns the index of the track within the file. */
+	public int getTrack() {return track;}
+	/** Returns the name of the track. */
+	public String getTrackName() {return trackName;}
+	/** Returns the index of the first row of this chunk within its' track. */
+	public long getOffset() {return offset;}
+	/** Returns the number of rows. */
+	public int size() {return t.length;}
+	/** Returns the time of every row, in seconds. */
+	public double[] getT() {return t;}
+	/** Returns the x-coordinate of every row. */
+	public double[] getX() {return x;}
+	/** Returns the y-coordinate of every row. */
+	public double[] getY() {return y;}
+}
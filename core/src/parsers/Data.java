@@ -0,0 +1,429 @@
+package parsers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Class for manipulating data collections.
+ */
+public class Data {
+	// File parsing
+	/*
+	 * Parses tracking data of the first track from filepath to three arrays of doubles.
+	 * Format: Trackers' default export (.txt)
+	 * Output [double[] t, double[] x, double[] y]:
+	 *  - double[] x: array of time value in strictly increasing order
+	 *  - double[] x: array of x coordinates in strictly increasing order
+	 *  - double[] y: array of y coordinates at x coordinate specified in fist array
+	 */
+	public static double[][] parseFile(File file)  {
+		return TrackerParser.parse(file);
+	}
+	
+	
+	// Streamed node selection
+	/**
+	 * Returns the coordinates of n nodes of given track of given file as [double[] x, double[] y, double[] {first x, last x}],
+	 * selecting the same samples as {@link #equidistantIndices}. The file is streamed, holding only a single chunk in memory.
+	 */
+	public static double[][] equidistantNodes(File file, int track, int n) {
+		return streamNodes(file, track, n, (a, b) -> {
+			double[] values = new double[n];
+			double step = (b - a) / ((double) n - 1d);
+			for (int k = 0; k < n; k++)
+				values[k] = a + k * step;
+			return values;
+		});
+	}
+	
+	/**
+	 * Returns the coordinates of n Chebyshev nodes of given track of given file as [double[] x, double[] y, double[] {first x, last x}],
+	 * selecting the same samples as {@link #chebyshevIndices}. The file is streamed, holding only a single chunk in memory.
+	 */
+	public static double[][] chebyshevNodes(File file, int track, int n) {
+		return streamNodes(file, track, n, (a, b) -> {
+			double[] values = new double[n];
+			for (int k = 1; k <= n; k++)
+				values[k - 1] = (1d/2d)*(a+b) + (1d/2d)*(a-b) * Math.cos(((2*k - 1d) / (2*n)) * Math.PI);
+			return values;
+		});
+	}
+	
+	/**
+	 * Streams given file, selecting the first sample of given track reaching each of the node values computed from its' range of x-coordinates.
+	 * The range is taken from {@link DataRegistry} if the file has been read before, so that the file is only streamed once.
+	 * Otherwise the file is first streamed to find the range, which is then registered. Samples must be in strictly increasing order of x.
+	 */
+	private static double[][] streamNodes(File file, int track, int n, BiFunction<Double, Double, double[]> nodeValues) {
+		// Version of the file, read before streaming so that changes during streaming are detected on next request
+		long modified = file.lastModified();
+		long length = file.length();
+		
+		// Range of x-coordinates, streaming the file if it is not known
+		double[] range = DataRegistry.peekDomain(file, track);
+		if (range == null) {
+			double[] streamed = new double[] { Double.NaN, Double.NaN };
+			List<String> names = TrackerParser.stream(file, TrackerParser.CHUNK_SIZE, chunk -> {
+				if (chunk.getTrack() != track) return;
+				
+				double[] x = chunk.getX();
+				if (Double.isNaN(streamed[0]))
+					streamed[0] = x[0];
+				streamed[1] = x[x.length - 1];
+			});
+			if (Double.isNaN(streamed[0]))
+				throw TrackerParser.missingTrack(file, names, track);
+			range = streamed;
+		}
+		
+		// First sample reaching each node value. Nodes that are never reached default to the first sample
+		double[] values = nodeValues.apply(range[0], range[1]);
+		double[] xNodes = new double[n];
+		double[] yNodes = new double[n];
+		int[] current = new int[1];
+		double[] previous = new double[] { Double.NaN };
+		List<String> names = TrackerParser.stream(file, TrackerParser.CHUNK_SIZE, chunk -> {
+			if (chunk.getTrack() != track) return;
+			
+			double[] x = chunk.getX();
+			double[] y = chunk.getY();
+			if (chunk.getOffset() == 0) {
+				Arrays.fill(xNodes, x[0]);
+				Arrays.fill(yNodes, y[0]);
+			}
+			for (int i = 0; i < x.length; i++) {
+				if (x[i] <= previous[0])
+					throw new IllegalArgumentException("Values in array of x coordinates must be strictly increasing.");
+				previous[0] = x[i];
+				
+				if (current[0] < n  &&  x[i] >= values[current[0]]) {
+					xNodes[current[0]] = x[i];
+					yNodes[current[0]] = y[i];
+					current[0]++;
+				}
+			}
+		});
+		if (Double.isNaN(previous[0]))
+			throw TrackerParser.missingTrack(file, names, track);
+		
+		DataRegistry.putDomain(file, track, range, modified, length);
+		return new double[][] { xNodes, yNodes, range };
+	}
+	
+	
+	// Array reduction
+	/**
+	 * Converts an array to a reduced array by picking n evenly indexed elements.
+	 */
+	public static double[] reduceArray(double[] inputArr, int n) {
+		// Verify that reduction is necessary
+		if (n >= inputArr.length)
+			return inputArr;
+		
+		double[] output = new double[n];
+		double step = ((double) inputArr.length - 1d)  /  ((double) n - 1d);
+		
+		// Fill output
+		for (int i = 0; i < n; i++)
+				output[i] = inputArr[(int) Math.round(step * (double) i)];
+		
+		return output;
+	}
+	
+	/**
+	 * Reduces array using an array of integers.
+	 */
+	public static double[] reduceArray(double[] inputArr, int[] indices) {
+		// Verify that reduction is necessary / possible
+		if (indices[indices.length - 1] >= inputArr.length)
+			return inputArr;
+		
+		double[] output = new double[indices.length];
+		
+		// Fill list
+		for (int i = 0; i < indices.length; i++)
+				output[i] = inputArr[indices[i]];
+		
+		return output;
+	}
+	
+	/**
+	 * Reduces array using given node distribution and size.
+	 */
+	public static double[] reduceArray(double[] inputArr, Nodes nodes, int n) {
+		// Verify that reduction is necessary
+		if (n >= inputArr.length)
+			return inputArr;		
+		
+		int[] indices = new int[n];
+		double[] output = new double[n];
+		
+		switch (nodes) {
+		case UNIFORM:
+			indices = uniformIndices(inputArr, n);
+			break;
+		case EQUIDISTANT:
+			indices = equidistantIndices(inputArr, n);
+			break;
+		case CHEBYSHEV:
+			indices = chebyshevIndices(inputArr, n);
+			break;
+		}
+		
+		// Fill output
+		for (int i = 0; i < indices.length; i++)
+				output[i] = inputArr[indices[i]];
+		
+		return output;
+	}
+	
+	
+	// List reduction
+	/**
+	 * Reduces a list using an array of integers.
+	 */
+	public static List<Double> reduceList(List<Double> inputList, int[] indices) {
+		// Verify that reduction is necessary / possible
+		if (indices[indices.length - 1] >= inputList.size())
+			return inputList;
+		
+		List<Double> output = new ArrayList<>();
+		
+		// Fill list
+		for (int i = 0; i < indices.length; i++)
+				output.add(inputList.get(indices[i]));
+		
+		return output;
+	}
+	
+	
+	// Node distribution
+	/**
+	 * Returns n uniformy distributed indices from input array.
+	 */
+	public static int[] uniformIndices(double[] inputArr, int n) {
+		int[] indices = new int[n];
+		
+		// Calculate step size
+		double step = ((double) inputArr.length - 1d)  /  ((double) n - 1d);
+		
+		// Fill list
+		for (int i = 0; i < n; i++)
+				indices[i] = (int) Math.round(step * (double) i);
+		
+		return indices;
+	}
+	
+	/**
+	 * Returns the indices for n equidistant elements from input array.
+	 */
+	public static int[] equidistantIndices(double[] inputArr, int n) {
+		int[] indices = new int[n];
+		
+		// Endpoints
+		double a = inputArr[0];
+		double b = inputArr[inputArr.length - 1];
+		double step = (b - a) / ((double) n - 1d);
+		
+		// Create array of equidistant values
+		double[] equidistantValues = new double[n];
+		for (int k = 0; k < n; k++)
+			equidistantValues[k] = a + k * step;
+		
+		// Loop through input array to find index
+		int currentIndex = 0;
+		double currentValue = equidistantValues[currentIndex];
+
+		for (int i = 0; i < inputArr.length; i++) {
+			if (inputArr[i] >= currentValue) {
+				indices[currentIndex++] = i;
+				
+				// Break if finished
+				if (currentIndex == n) break;
+				
+				// Update search value
+				currentValue = equidistantValues[currentIndex];
+			}
+		}
+		
+		// Return reduced list
+		return indices;
+	}
+	
+	/**
+	 * Returns the indices for n Chebyshev nodes from input array. Recommended for Polynomial interpolation.
+	 * Elements must be in strictly increasing order.
+	 */
+	public static int[] chebyshevIndices(double[] inputArr, int n) {
+		int[] indices = new int[n];
+		
+		// Endpoints
+		double a = inputArr[0];
+		double b = inputArr[inputArr.length - 1];
+		
+		// Create list of actual chebyshev values
+		double[] chebyshevValues = new double[n];
+		for (int k = 1; k <= n; k++)
+			chebyshevValues[k - 1] = (1d/2d)*(a+b) + (1d/2d)*(a-b) * Math.cos((((double)(2*k - 1d)) / (2*n)) * Math.PI);
+		
+		// Loop through input array to find index
+		int currentIndex = 0;
+		double currentValue = chebyshevValues[currentIndex];
+
+		for (int i = 0; i < inputArr.length; i++) {
+			if (inputArr[i] >= currentValue) {
+				indices[currentIndex++] = i;
+				
+				// Break if finished
+				if (currentIndex == n) break;
+				
+				// Update search value
+				currentValue = chebyshevValues[currentIndex];
+			}
+		}
+		
+		return indices;
+	}
+	
+	
+	// Downsampling
+	/**
+	 * Returns the indices of n samples of a series, selected by the Largest-Triangle-Three-Buckets algorithm.
+	 * The first and last samples are kept, and every bucket of samples in between contributes the sample forming
+	 * the largest triangle with the previously selected sample and the average of the next bucket. Peaks are thereby kept.
+	 * Samples may be in any order of x. Runs in O(length) time. Returns all indices if the series holds at most n samples.
+	 */
+	public static int[] largestTriangleIndices(double[] x, double[] y, int n) {
+		int length = Math.min(x.length, y.length);
+		if (n >= length  ||  n < 3)
+			return (n >= length) ? allIndices(length) : uniformIndices(length, n);
+		
+		int[] indices = new int[n];
+		double bucketSize = (double) (length - 2) / (n - 2);
+		
+		int selected = 0;
+		for (int bucket = 0; bucket < n - 2; bucket++) {
+			// Average of the next bucket, or the last sample
+			int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+			int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, length);
+			double xAverage = x[length - 1], yAverage = y[length - 1];
+			if (nextEnd > nextStart) {
+				double xSum = 0, ySum = 0;
+				for (int i = nextStart; i < nextEnd; i++) {
+					xSum += x[i];
+					ySum += y[i];
+				}
+				xAverage = xSum / (nextEnd - nextStart);
+				yAverage = ySum / (nextEnd - nextStart);
+			}
+			
+			// Sample of the current bucket forming the largest triangle
+			int start = (int) (bucket * bucketSize) + 1;
+			int end = nextStart;
+			double maxArea = -1;
+			int next = start;
+			for (int i = start; i < end; i++) {
+				double area = Math.abs((x[selected] - xAverage) * (y[i] - y[selected])
+									 - (x[selected] - x[i]) * (yAverage - y[selected]));
+				if (area > maxArea) {
+					maxArea = area;
+					next = i;
+				}
+			}
+			
+			indices[bucket + 1] = next;
+			selected = next;
+		}
+		
+		indices[n - 1] = length - 1;
+		return indices;
+	}
+	
+	/**
+	 * Returns the indices of at most n of the first given number of samples of a series, keeping the minimum and maximum y
+	 * of every bucket of samples in order. The first and last samples are kept, so the extremes and the full range of the series are drawn.
+	 * Samples may be in any order of x. Runs in O(length) time. Returns all indices if the series holds at most n samples.
+	 */
+	public static int[] minMaxIndices(double[] y, int length, int n) {
+		if (n >= length  ||  n < 4)
+			return (n >= length) ? allIndices(length) : uniformIndices(length, n);
+		
+		int[] indices = new int[n];
+		int count = 0;
+		indices[count++] = 0;
+		
+		// Two samples per bucket between the first and last sample
+		int buckets = (n - 2) / 2;
+		double bucketSize = (double) (length - 2) / buckets;
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			int start = (int) (bucket * bucketSize) + 1;
+			int end = Math.min((int) ((bucket + 1) * bucketSize) + 1, length - 1);
+			if (start >= end) continue;
+			
+			int min = start, max = start;
+			for (int i = start + 1; i < end; i++) {
+				if (y[i] < y[min]) min = i;
+				if (y[i] > y[max]) max = i;
+			}
+			
+			indices[count++] = Math.min(min, max);
+			if (min != max)
+				indices[count++] = Math.max(min, max);
+		}
+		
+		indices[count++] = length - 1;
+		return Arrays.copyOf(indices, count);
+	}
+	
+	/**
+	 * Returns the indices of the first given number of samples of a series with x within [lower, upper], in order,
+	 * along with the samples just outside next to a sample within, so that lines reach the edges of the window.
+	 * Samples may be in any order of x. Runs in O(length) time.
+	 */
+	public static int[] windowIndices(double[] x, int length, double lower, double upper) {
+		int[] indices = new int[length];
+		int count = 0;
+		
+		for (int i = 0; i < length; i++) {
+			boolean inside = x[i] >= lower  &&  x[i] <= upper;
+			boolean previous = i > 0  &&  x[i - 1] >= lower  &&  x[i - 1] <= upper;
+			boolean next = i + 1 < length  &&  x[i + 1] >= lower  &&  x[i + 1] <= upper;
+			if (inside  ||  previous  ||  next)
+				indices[count++] = i;
+		}
+		
+		return (count == length) ? indices : Arrays.copyOf(indices, count);
+	}
+	
+	/**
+	 * Returns n indices evenly spread over a series of given length, including the first and last sample.
+	 */
+	private static int[] uniformIndices(int length, int n) {
+		int[] indices = new int[n];
+		double step = (n > 1) ? ((double) length - 1d) / ((double) n - 1d) : 0;
+		for (int i = 0; i < n; i++)
+			indices[i] = (int) Math.round(step * (double) i);
+		return indices;
+	}
+	
+	/**
+	 * Returns the indices of every sample of a series of given length.
+	 */
+	private static int[] allIndices(int length) {
+		int[] indices = new int[length];
+		for (int i = 0; i < length; i++)
+			indices[i] = i;
+		return indices;
+	}
+}
+
+
+/**
+ * Enumeration for available node distributions.
+ */
+enum Nodes {
+	UNIFORM, EQUIDISTANT, CHEBYSHEV
+}
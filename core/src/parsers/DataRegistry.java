@@ -0,0 +1,187 @@
+package parsers;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Process wide registry of parsed tracking files. Every file is parsed once, reading all of its' tracks,
+ * and parsed again only once it changes on disk. Datasets are weakly held, and released once no trace refers to them any longer.
+ * Different files may be parsed in parallel, while threads requesting a file being parsed wait for the result.
+ */
+public class DataRegistry {
+	private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+	
+	
+	// Constructor
+	private DataRegistry() {}
+	
+	
+	// Registry
+	/**
+	 * Returns the dataset of the first track of given file, parsing the file if it has not been parsed, or has changed since it was parsed.
+	 */
+	public static Dataset get(File file) {
+		return get(file, 0, null);
+	}
+	
+	/**
+	 * Returns the dataset of given track of given file, parsing the file if it has not been parsed, or has changed since it was parsed.
+	 */
+	public static Dataset get(File file, int track) {
+		return get(file, track, null);
+	}
+	
+	/**
+	 * Returns the dataset of given track of given file, parsing the file if it has not been parsed, or has changed since it was parsed.
+	 * While the file is parsed, given consumer (may be null) receives datasets of the rows of the track parsed so far,
+	 * allowing large files to be shown before they are completely loaded.
+	 * Throws an IllegalArgumentException if the file has no such track, or the track holds no rows.
+	 */
+	public static Dataset get(File file, int track, Consumer<Dataset> partial) {
+		Entry entry = ENTRIES.computeIfAbsent(getPath(file), path -> new Entry());
+		
+		// Version of the file, read before parsing so that changes during parsing are detected on next request
+		long modified = file.lastModified();
+		long length = file.length();
+		
+		synchronized (entry) {
+			boolean current = entry.names != null  &&  entry.modified == modified  &&  entry.length == length;
+			if (current  &&  (track < 0  ||  track >= entry.names.size()))
+				throw TrackerParser.missingTrack(file, entry.names, track);
+			
+			Dataset dataset = current ? entry.datasets.get(track).get() : null;
+			if (dataset == null) {
+				List<Dataset> datasets = parse(entry, file, track, partial, modified, length);
+				if (track < 0  ||  track >= datasets.size())
+					throw TrackerParser.missingTrack(file, entry.names, track);
+				dataset = datasets.get(track);
+			}
+			
+			if (dataset.size() == 0)
+				throw TrackerParser.missingTrack(file, entry.names, track);
+			return dataset;
+		}
+	}
+	
+	/**
+	 * Returns the dataset of given track of given file if it is held and up to date, without parsing the file. Otherwise returns null.
+	 */
+	public static Dataset peek(File file, int track) {
+		Entry entry = ENTRIES.get(getPath(file));
+		if (entry == null) return null;
+		
+		synchronized (entry) {
+			boolean current = entry.names != null  &&  entry.modified == file.lastModified()  &&  entry.length == file.length();
+			if (!current  ||  track < 0  ||  track >= entry.datasets.size()) return null;
+			
+			Dataset dataset = entry.datasets.get(track).get();
+			return (dataset == null  ||  dataset.size() == 0) ? null : dataset;
+		}
+	}
+	
+	/**
+	 * Returns the range {first x, last x} of given track of given file if known for its' current version, without reading the file.
+	 * Ranges are kept after the datasets are released. Otherwise returns null.
+	 */
+	public static double[] peekDomain(File file, int track) {
+		Entry entry = ENTRIES.get(getPath(file));
+		if (entry == null) return null;
+		
+		synchronized (entry) {
+			boolean current = entry.domains != null  &&  entry.modified == file.lastModified()  &&  entry.length == file.length();
+			return current ? entry.domains.get(track) : null;
+		}
+	}
+	
+	/**
+	 * Registers the range {first x, last x} of given track of given file, found while streaming the current version of the file.
+	 */
+	static void putDomain(File file, int track, double[] domain, long modified, long length) {
+		Entry entry = ENTRIES.computeIfAbsent(getPath(file), path -> new Entry());
+		
+		synchronized (entry) {
+			// Forget a previous version of the file, which is parsed again on next request
+			if (entry.domains == null  ||  entry.modified != modified  ||  entry.length != length) {
+				entry.names = null;
+				entry.datasets = null;
+				entry.domains = new HashMap<>();
+				entry.modified = modified;
+				entry.length = length;
+			}
+			entry.domains.put(track, domain);
+		}
+	}
+	
+	/**
+	 * Returns the names of the tracks of given file, in order, reading only its' header.
+	 * Never waits for the file to be parsed, so it may be called from the JavaFX Application Thread.
+	 */
+	public static List<String> getTrackNames(File file) {
+		return TrackerParser.readTrackNames(file);
+	}
+	
+	/**
+	 * Removes all registered datasets, so that every file is parsed again on next request.
+	 */
+	public static void clear() {
+		ENTRIES.clear();
+	}
+	
+	
+	// Helpers
+	/**
+	 * Parses all tracks of given file into given entry, holding them until every reference is registered.
+	 * Only call this method while holding the lock of the entry.
+	 */
+	private static List<Dataset> parse(Entry entry, File file, int track, Consumer<Dataset> partial, long modified, long length) {
+		List<Dataset> datasets = TrackerParser.parse(file, track, partial);
+		List<WeakReference<Dataset>> references = new ArrayList<>(datasets.size());
+		List<String> names = new ArrayList<>(datasets.size());
+		Map<Integer, double[]> domains = new HashMap<>();
+		for (Dataset parsed : datasets) {
+			if (parsed.size() > 0)
+				domains.put(names.size(), new double[] { parsed.getX()[0], parsed.getX()[parsed.size() - 1] });
+			references.add(new WeakReference<>(parsed));
+			names.add(parsed.getName());
+		}
+		
+		entry.datasets = references;
+		entry.names = Collections.unmodifiableList(names);
+		entry.domains = domains;
+		entry.modified = modified;
+		entry.length = length;
+		return datasets;
+	}
+	
+	/**
+	 * Returns the canonical path of given file, identifying it regardless of how it was opened.
+	 */
+	private static String getPath(File file) {
+		try {
+			return file.getCanonicalPath();
+		} catch (IOException e) {
+			return file.getAbsolutePath();
+		}
+	}
+	
+	
+	/**
+	 * Last parsed or streamed version of a file, its' tracks and their ranges of x-coordinates.
+	 * Names and datasets are null if the version has only been streamed.
+	 */
+	private static class Entry {
+		private List<String> names;
+		private List<WeakReference<Dataset>> datasets;
+		private Map<Integer, double[]> domains;
+		private long modified;
+		private long length;
+	}
+}
@@ -0,0 +1,40 @@
+package parsers;
+
+/**
+ * Tracking data of a single track of a Tracker export, stored as primitive columns.
+ * Datasets are shared by every trace of the same file, so the returned columns must not be modified.
+ */
+public final class Dataset {
+	private final String name;
+	private final double[] t;
+	private final double[] x;
+	private final double[] y;
+	
+	
+	// Constructor
+	/**
+	 * Creates a dataset of given track name and columns, which must be of equal length.
+	 */
+	public Dataset(String name, double[] t, double[] x, double[] y) {
+		if (t.length != x.length  ||  t.length != y.length)
+			throw new IllegalArgumentException("Columns of a dataset must be of equal length.");
+		
+		this.name = name;
+		this.t = t;
+		this.x = x;
+		this.y = y;
+	}
+	
+	
+	// Getters
+	/** Returns the name of the track. */
+	public String getName() {return name;}
+	/** Returns the number of samples. */
+	public int size() {return t.length;}
+	/** Returns the time of every sample, in seconds. The returned array must not be modified. */
+	public double[] getT() {return t;}
+	/** Returns the x-coordinate of every sample. The returned array must not be modified. */
+	public double[] getX() {return x;}
+	/** Returns the y-coordinate of every sample. The returned array must not be modified. */
+	public double[] getY() {return y;}
+}
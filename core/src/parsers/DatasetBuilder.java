@@ -0,0 +1,53 @@
+package parsers;
+
+import java.util.Arrays;
+
+/**
+ * Collects streamed chunks of a track into growable primitive columns, building a dataset of all rows or of the rows received so far.
+ */
+class DatasetBuilder {
+	private final String name;
+	private double[] t = new double[1024];
+	private double[] x = new double[1024];
+	private double[] y = new double[1024];
+	private int size;
+	
+	
+	/**
+	 * Creates a builder of a dataset of given track name.
+	 */
+	DatasetBuilder(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * Appends the rows of given chunk.
+	 */
+	void add(Chunk chunk) {
+		int n = chunk.size();
+		if (size + n > t.length) {
+			int capacity = Math.max(t.length * 2, size + n);
+			t = Arrays.copyOf(t, capacity);
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+		}
+		System.arraycopy(chunk.getT(), 0, t, size, n);
+		System.arraycopy(chunk.getX(), 0, x, size, n);
+		System.arraycopy(chunk.getY(), 0, y, size, n);
+		size += n;
+	}
+	
+	/**
+	 * Returns the number of rows received.
+	 */
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns a dataset of all rows received so far.
+	 */
+	Dataset build() {
+		return new Dataset(name, Arrays.copyOf(t, size), Arrays.copyOf(x, size), Arrays.copyOf(y, size));
+	}
+}
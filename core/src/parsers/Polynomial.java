@@ -25,6 +25,27 @@ public class Polynomial {
 		return result;
 	}
 	
+	/*
+	 * Evaluates polynomial, first and second derivative in a single pass of Horner's method
+	 * Output is written to given array on the form [f(x), f'(x), f''(x)]
+	 * NOTE: Coefficcents must be given in descending order of degrees
+	 */
+	public static void evalJet(double[] coeffArray, double x, double[] out) {
+		double value = coeffArray[0];
+		double derivative = 0;
+		double halfDerivativeII = 0;
+		
+		for (int i = 1; i < coeffArray.length; i++) {
+			halfDerivativeII = (halfDerivativeII * x) + derivative;
+			derivative = (derivative * x) + value;
+			value = (value * x) + coeffArray[i];
+		}
+		
+		out[0] = value;
+		out[1] = derivative;
+		out[2] = 2 * halfDerivativeII;
+	}
+	
 	/*
 	 * Evaluates derivative of polynomial, represented by an array of coefficients
 	 * NOTE: Coefficcents must be given in descending order of degrees
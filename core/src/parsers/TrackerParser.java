@@ -0,0 +1,487 @@
+package parsers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single pass parser of Tracker exports (.txt), reading bytes directly into primitive columns.
+ * Values may use decimal points or commas as well as E-notation.
+ * The first line holds the track names and the second the column names. Exports of several tracks hold one group
+ * of columns per track, starting at the column of its' name. Every group must contain x and y columns, and a t column
+ * unless the time is shared with a preceding column. Exports without recognised column names hold a single track in the first three columns.
+ * Tab separated exports may leave cells empty where a track is not marked, such rows are skipped for that track only.
+ * Rows filling only some cells of a track are reported as errors.
+ * Files may be parsed whole, or streamed as chunks of a fixed number of rows, holding only a single chunk per track in memory.
+ */
+public class TrackerParser {
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int HEADER_LINES = 2;
+	private static final int COLUMNS = 3;
+	private static final int MAX_TOKEN_LENGTH = 64;
+	public static final int CHUNK_SIZE = 1 << 16;
+	// Exactly representable powers of ten, used for values of at most 15 significant digits
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	
+	
+	// Current chunk of every track, and receiver of full chunks
+	private final Consumer<Chunk> consumer;
+	private final int chunkSize;
+	private double[][] t, x, y;
+	private int[] size;
+	private long[] offset;
+	// Header, and columns of every track once the header is read
+	private final ByteArrayOutputStream header = new ByteArrayOutputStream();
+	private Layout layout;
+	// Current token, row and position within file
+	private final File file;
+	private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+	private int tokenLength;
+	private double[] row;
+	private boolean[] present;
+	private boolean[] sharedTime;
+	private int column;
+	private int line = 1;
+	
+	
+	// Constructor
+	private TrackerParser(File file, int chunkSize, Consumer<Chunk> consumer) {
+		this.file = file;
+		this.chunkSize = chunkSize;
+		this.consumer = consumer;
+	}
+	
+	
+	// Parsing
+	/**
+	 * Parses the first track of given Tracker export to three columns [t, x, y].
+	 * Throws an UncheckedIOException if the file cannot be read, and an IllegalArgumentException
+	 * naming the line and column of the first value that is not a number.
+	 */
+	public static double[][] parse(File file) {
+		Dataset dataset = parse(file, 0, null).get(0);
+		if (dataset.size() == 0)
+			throw missingTrack(file, Collections.singletonList(dataset.getName()), 0);
+		return new double[][] { dataset.getT(), dataset.getX(), dataset.getY() };
+	}
+	
+	/**
+	 * Parses every track of given Tracker export to a dataset, in order of the file. Tracks without rows give empty datasets.
+	 * While parsing, given consumer (may be null) receives datasets of the rows of given track parsed so far,
+	 * each at least twice the size of the previous one, keeping the total cost of copies linear.
+	 */
+	static List<Dataset> parse(File file, int track, Consumer<Dataset> partial) {
+		List<DatasetBuilder> builders = new ArrayList<>();
+		int[] published = new int[1];
+		List<String> names = stream(file, CHUNK_SIZE, chunk -> {
+			while (builders.size() <= chunk.getTrack())
+				builders.add(null);
+			if (builders.get(chunk.getTrack()) == null)
+				builders.set(chunk.getTrack(), new DatasetBuilder(chunk.getTrackName()));
+			
+			DatasetBuilder builder = builders.get(chunk.getTrack());
+			builder.add(chunk);
+			if (partial != null  &&  chunk.getTrack() == track  &&  builder.size() >= 2 * Math.max(published[0], CHUNK_SIZE / 2)) {
+				published[0] = builder.size();
+				partial.accept(builder.build());
+			}
+		});
+		
+		// One dataset per track, including tracks without rows
+		List<Dataset> datasets = new ArrayList<>(names.size());
+		boolean empty = true;
+		for (int i = 0; i < names.size(); i++) {
+			DatasetBuilder builder = (i < builders.size()  &&  builders.get(i) != null) ? builders.get(i) : new DatasetBuilder(names.get(i));
+			datasets.add(builder.build());
+			empty &= builder.size() == 0;
+		}
+		if (empty)
+			throw new IllegalArgumentException(String.format("No tracking data found in \"%s\".", file.getName()));
+		
+		return datasets;
+	}
+	
+	/**
+	 * Streams given Tracker export, passing chunks of given number of rows to given consumer in order of the file.
+	 * Chunks of different tracks are interleaved, and only the last chunk of every track may be smaller.
+	 * Returns the names of all tracks of the file. Errors are thrown as by {@link #parse(File)}, after all previous chunks were passed.
+	 */
+	public static List<String> stream(File file, int chunkSize, Consumer<Chunk> consumer) {
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("Chunk size must be positive.");
+		TrackerParser parser = new TrackerParser(file, chunkSize, consumer);
+		
+		read(file, parser::feed);
+		
+		// Finish the last line, which also completes a header without data, and the last chunks
+		parser.feed(new byte[] {'\n'}, 1);
+		if (parser.layout == null)
+			parser.feed(new byte[] {'\n'}, 1);
+		for (int track = 0; track < parser.layout.names.length; track++)
+			parser.emit(track);
+		return Arrays.asList(parser.layout.names);
+	}
+	
+	/**
+	 * Returns the names of the tracks of given Tracker export, reading only its' header.
+	 */
+	public static List<String> readTrackNames(File file) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			read(file, (buffer, length) -> {
+				bytes.write(buffer, 0, length);
+				if (countLines(bytes) >= HEADER_LINES)
+					throw new HeaderComplete();
+			});
+		} catch (HeaderComplete e) {
+			//Header read, remaining data is not needed
+		}
+		
+		String[] lines = (new String(bytes.toByteArray(), StandardCharsets.UTF_8) + "\n\n").split("\n", -1);
+		return Collections.unmodifiableList(Arrays.asList(Layout.of(lines[0], lines[1], file).names));
+	}
+	
+	/**
+	 * Parses given bytes, continuing from the end of the previously parsed bytes.
+	 */
+	private void feed(byte[] bytes, int length) {
+		for (int i = 0; i < length; i++) {
+			byte b = bytes[i];
+			
+			// Collect header, and find the columns of every track once complete
+			if (layout == null) {
+				if (b == '\n'  &&  ++line > HEADER_LINES)
+					start();
+				else
+					header.write(b);
+				continue;
+			}
+			
+			// Append to current token. Tab separated cells may contain spaces, which are trimmed
+			boolean separator = layout.tabs ? (b == '\t'  ||  b == '\n') : (b == ' '  ||  b == '\t'  ||  b == '\r'  ||  b == '\n');
+			if (!separator) {
+				if (tokenLength == 0  &&  (b == ' '  ||  b == '\r'))
+					continue;
+				if (tokenLength == MAX_TOKEN_LENGTH)
+					throw invalidValue();
+				token[tokenLength++] = b;
+				continue;
+			}
+			
+			// End of token, parse value of used columns. Tab separated cells are counted even if empty
+			while (tokenLength > 0  &&  (token[tokenLength - 1] == ' '  ||  token[tokenLength - 1] == '\r'))
+				tokenLength--;
+			if (tokenLength > 0) {
+				if (column < layout.used.length  &&  layout.used[column]) {
+					row[column] = parseDouble(token, tokenLength);
+					if (Double.isNaN(row[column]))
+						throw invalidValue();
+					present[column] = true;
+				}
+				if (!layout.tabs) column++;
+				tokenLength = 0;
+			}
+			if (layout.tabs) column++;
+			
+			// End of line, store rows of every track with all values present. Tracks without values are not marked on this row
+			if (b == '\n') {
+				if (!layout.tabs  &&  column > 0  &&  column < COLUMNS)
+					throw new IllegalArgumentException(String.format("Expected %d values at line %d of \"%s\", found %d.",
+																	 COLUMNS, line, file.getName(), column));
+				for (int track = 0; track < layout.names.length; track++) {
+					int[] columns = layout.columns[track];
+					int found = (present[columns[0]] ? 1 : 0) + (present[columns[1]] ? 1 : 0) + (present[columns[2]] ? 1 : 0);
+					int marked = found - ((sharedTime[track]  &&  present[columns[0]]) ? 1 : 0);
+					if (marked == 0)
+						continue;
+					if (found < COLUMNS)
+						throw new IllegalArgumentException(String.format("Expected %d values at line %d of \"%s\", found %d.",
+																		 COLUMNS, line, file.getName(), found));
+					
+					int n = size[track];
+					t[track][n] = row[columns[0]];
+					x[track][n] = row[columns[1]];
+					y[track][n] = row[columns[2]];
+					if (++size[track] == chunkSize)
+						emit(track);
+				}
+				Arrays.fill(present, false);
+				column = 0;
+				line++;
+			}
+		}
+	}
+	
+	/**
+	 * Reads the columns of every track from the collected header, and allocates their chunks.
+	 */
+	private void start() {
+		String[] lines = (new String(header.toByteArray(), StandardCharsets.UTF_8) + "\n\n").split("\n", -1);
+		layout = Layout.of(lines[0], lines[1], file);
+		
+		int tracks = layout.names.length;
+		t = new double[tracks][chunkSize];
+		x = new double[tracks][chunkSize];
+		y = new double[tracks][chunkSize];
+		size = new int[tracks];
+		offset = new long[tracks];
+		row = new double[layout.used.length];
+		present = new boolean[layout.used.length];
+		
+		// Time columns shared by several tracks, which do not tell whether a track is marked
+		sharedTime = new boolean[tracks];
+		for (int i = 0; i < tracks; i++)
+			for (int j = 0; j < tracks; j++)
+				sharedTime[i] |= i != j  &&  layout.columns[i][0] == layout.columns[j][0];
+	}
+	
+	/**
+	 * Passes the rows of the current chunk of given track to the consumer, if any, and starts a new chunk.
+	 */
+	private void emit(int track) {
+		int n = size[track];
+		if (n == 0) return;
+		
+		consumer.accept(new Chunk(track, layout.names[track], offset[track],
+								  Arrays.copyOf(t[track], n), Arrays.copyOf(x[track], n), Arrays.copyOf(y[track], n)));
+		offset[track] += n;
+		size[track] = 0;
+	}
+	
+	/**
+	 * Parses a decimal number of given bytes, accepting a decimal point or comma and an exponent.
+	 * Returns NaN if the bytes are not a number. Values of at most 15 significant digits and small exponents
+	 * are computed directly, as both factors are exact the result is correctly rounded. Other values use Double.parseDouble.
+	 */
+	static double parseDouble(byte[] token, int length) {
+		int i = 0;
+		
+		// Sign
+		boolean negative = token[0] == '-';
+		if (token[0] == '-'  ||  token[0] == '+')
+			i++;
+		
+		// Significand, as an integer and a power of ten
+		long significand = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean anyDigit = false;
+		boolean decimal = false;
+		for (; i < length; i++) {
+			byte b = token[i];
+			if (b >= '0'  &&  b <= '9') {
+				anyDigit = true;
+				if (digits < 18) {
+					significand = significand * 10 + (b - '0');
+					if (significand != 0) digits++;
+					if (decimal) exponent--;
+				} else {
+					// Digits beyond the precision of a long only scale the integer part
+					digits++;
+					if (!decimal) exponent++;
+				}
+			} else if ((b == '.'  ||  b == ',')  &&  !decimal) {
+				decimal = true;
+			} else {
+				break;
+			}
+		}
+		if (!anyDigit)
+			return Double.NaN;
+		
+		// Exponent
+		if (i < length  &&  (token[i] == 'e'  ||  token[i] == 'E')) {
+			i++;
+			boolean negativeExponent = i < length  &&  token[i] == '-';
+			if (i < length  &&  (token[i] == '-'  ||  token[i] == '+'))
+				i++;
+			
+			int value = 0;
+			boolean exponentDigit = false;
+			for (; i < length  &&  token[i] >= '0'  &&  token[i] <= '9'; i++) {
+				exponentDigit = true;
+				if (value < 100000)
+					value = value * 10 + (token[i] - '0');
+			}
+			if (!exponentDigit)
+				return Double.NaN;
+			exponent += negativeExponent ? -value : value;
+		}
+		if (i != length)
+			return Double.NaN;
+		
+		// Exact significand and power of ten
+		if (significand == 0)
+			return negative ? -0d : 0d;
+		if (digits <= 15  &&  exponent >= -22  &&  exponent <= 22) {
+			double value = (exponent < 0) ? significand / POWERS_OF_TEN[-exponent] : significand * POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+		
+		// Correctly rounded fallback
+		return Double.parseDouble(new String(token, 0, length, StandardCharsets.ISO_8859_1).replace(',', '.'));
+	}
+	
+	
+	// Helpers
+	/**
+	 * Reads given file in blocks, passing every block to given consumer.
+	 */
+	private static void read(File file, BlockConsumer consumer) {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			int length;
+			while ((length = channel.read(buffer)) >= 0) {
+				consumer.accept(buffer.array(), length);
+				buffer.clear();
+			}
+		} catch (NoSuchFileException e) {
+			throw new UncheckedIOException(String.format("Could not read \"%s\", file not found.", file.getName()), e);
+		} catch (IOException e) {
+			throw new UncheckedIOException(String.format("Could not read \"%s\": %s", file.getName(), e.getMessage()), e);
+		}
+	}
+	
+	/**
+	 * Returns the number of line breaks in given bytes.
+	 */
+	private static int countLines(ByteArrayOutputStream bytes) {
+		int lines = 0;
+		for (byte b : bytes.toByteArray())
+			if (b == '\n') lines++;
+		return lines;
+	}
+	
+	/**
+	 * Returns the error of a track of given file that does not exist or holds no rows, using given track names.
+	 */
+	static IllegalArgumentException missingTrack(File file, List<String> names, int track) {
+		if (track < 0  ||  track >= names.size())
+			return new IllegalArgumentException(String.format("\"%s\" has no track %d.", file.getName(), track));
+		return new IllegalArgumentException(String.format("No tracking data found for \"%s\" in \"%s\".", names.get(track), file.getName()));
+	}
+	
+	/**
+	 * Returns the error of the invalid value held by the current token.
+	 */
+	private IllegalArgumentException invalidValue() {
+		String value = new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+		return new IllegalArgumentException(String.format("Invalid value \"%s\" at line %d, column %d of \"%s\".",
+														  value, line, column + 1, file.getName()));
+	}
+	
+	
+	/**
+	 * Receiver of blocks of bytes read from a file.
+	 */
+	private interface BlockConsumer {
+		void accept(byte[] bytes, int length);
+	}
+	
+	/**
+	 * Thrown to stop reading a file once its' header is read.
+	 */
+	private static class HeaderComplete extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+		
+		private HeaderComplete() {
+			super(null, null, false, false);
+		}
+	}
+	
+	
+	/**
+	 * Names and columns of the tracks of a file, read from its' header.
+	 */
+	private static class Layout {
+		private final String[] names;
+		// Columns [t, x, y] of every track
+		private final int[][] columns;
+		// Columns holding values of any track
+		private final boolean[] used;
+		// Whether cells are separated by single tabs, so that empty cells are kept
+		private final boolean tabs;
+		
+		private Layout(String[] names, int[][] columns, boolean tabs) {
+			this.names = names;
+			this.columns = columns;
+			this.tabs = tabs;
+			
+			int width = 0;
+			for (int[] track : columns)
+				for (int column : track)
+					width = Math.max(width, column + 1);
+			this.used = new boolean[width];
+			for (int[] track : columns)
+				for (int column : track)
+					used[column] = true;
+		}
+		
+		/**
+		 * Reads the layout of given header lines. Every named column of the first line starts the column group of a track,
+		 * reaching up to the next named column. Headers without recognised groups describe a single track in the first three columns.
+		 */
+		private static Layout of(String nameLine, String labelLine, File file) {
+			boolean tabs = labelLine.indexOf('\t') >= 0;
+			
+			if (tabs) {
+				String[] names = nameLine.split("\t", -1);
+				String[] labels = labelLine.split("\t", -1);
+				for (int i = 0; i < labels.length; i++)
+					labels[i] = labels[i].trim();
+				
+				// Group of columns of every named track
+				List<String> trackNames = new ArrayList<>();
+				List<int[]> trackColumns = new ArrayList<>();
+				for (int start = 0; start < names.length; start++) {
+					if (names[start].trim().isEmpty()) continue;
+					int end = start + 1;
+					while (end < names.length  &&  names[end].trim().isEmpty())
+						end++;
+					if (end == names.length) end = Math.max(end, labels.length);
+					
+					// Time may be shared with the nearest preceding time column
+					int tColumn = indexOf(labels, "t", start, end);
+					for (int i = start - 1; tColumn < 0  &&  i >= 0; i--)
+						if (labels[i].equalsIgnoreCase("t")) tColumn = i;
+					int xColumn = indexOf(labels, "x", start, end);
+					int yColumn = indexOf(labels, "y", start, end);
+					if (tColumn < 0  ||  xColumn < 0  ||  yColumn < 0) continue;
+					
+					trackNames.add(names[start].trim());
+					trackColumns.add(new int[] { tColumn, xColumn, yColumn });
+				}
+				
+				if (!trackNames.isEmpty())
+					return new Layout(trackNames.toArray(new String[0]), trackColumns.toArray(new int[0][]), true);
+			}
+			
+			// Single track in the first three columns, named after the file if unnamed
+			String name = nameLine.trim();
+			if (name.isEmpty()) name = file.getName();
+			return new Layout(new String[] {name}, new int[][] {{0, 1, 2}}, tabs);
+		}
+		
+		/**
+		 * Returns the first column within [start, end) of given label, ignoring case, or -1.
+		 */
+		private static int indexOf(String[] labels, String label, int start, int end) {
+			for (int i = start; i < Math.min(end, labels.length); i++)
+				if (labels[i].equalsIgnoreCase(label)) return i;
+			return -1;
+		}
+	}
+}
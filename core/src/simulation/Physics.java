@@ -0,0 +1,88 @@
+package simulation;
+
+import functions.AbstractDifferentiable;
+
+/**
+ * Physical model of an object rolling along a track described by a differentiable function.
+ * All quantities are passed explicitly, allowing derived channels to be evaluated independently of a running trace.
+ */
+public class Physics {
+	//Constants
+	public static final double G = 9.82814;
+	
+	
+	// Constructor
+	private Physics() {}
+	
+	
+	// Calculations
+	/**
+	 * Evaluates the acceleration at given x-coordinate.
+	 */
+	public static double getAccel(AbstractDifferentiable func, double inertia, double x) {
+		// Evaluates the slope angle α(x) 
+		return getAccel(func.slopeAngle(x), inertia);
+	}
+	
+	/**
+	 * Evaluates the acceleration for given slope angle.
+	 */
+	public static double getAccel(double angle, double inertia) {
+		// Numerator: g * sin α(x)				| 
+		double numerator = G * Math.sin(angle);
+		
+		// Formula for moment of inertia: I₀ = c * mr²
+		// Denominator: 1 + I₀ / mr²
+		// 			  = 1 + c * mr² / mr²		| insert I₀ = c * mr²	
+		// 			  = 1 + c					| cancel terms
+		double denominator = 1 + inertia;
+		
+		// Return acceleration
+		return numerator / denominator;
+	}
+
+	/**
+	 * Returns the kinetic energy for a given velocity.
+	 */
+	public static double getKineticEnergy(double mass, double inertia, double v) {
+		return 0.5*mass*v*v  +  0.5*mass*inertia*v*v;
+   	}
+	
+	/**
+	 * Returns the potential energy for a given x-coordinate.
+	 */
+	public static double getPotentialEnergy(AbstractDifferentiable func, double mass, double x) {
+		return mass * G * func.eval(x);
+	}
+	
+	/**
+	 * Returns the total energy for a given velocity and x-coordinate.
+	 */
+	public static double getTotalEnergy(AbstractDifferentiable func, double mass, double inertia, double x, double v) {
+		return getKineticEnergy(mass, inertia, v) + getPotentialEnergy(func, mass, x);
+	}
+	
+	/**
+	 * Returns the fricton force for a given x-coordinate.
+	 * Explanation:
+	 *  -> SUM(F_x) = Parallel - Friction
+	 *  -> Friction = SUM(F_x) - Parallel
+	 */
+	public static double getFrictionForce(AbstractDifferentiable func, double mass, double inertia, double x) {
+		return mass * (G * Math.sin(func.slopeAngle(x)) - getAccel(func, inertia, x));
+	}
+	
+	/**
+	 * Returns the normal force for a given velocity and x-coordinate.
+	 * This is equivalent to the sum of the normal and the centripetal force.
+	 */
+	public static double getNormalForce(AbstractDifferentiable func, double mass, double x, double v) {
+		// Normal force
+		double normal = mass * G * Math.cos(func.slopeAngle(x));
+		
+		// Centripetal force
+		double centripetal = (mass*v*v) / func.radiusOfCurvature(x);
+		
+		return normal + centripetal;
+	}
+}
@@ -0,0 +1,138 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * Decimating sample buffer used to record integration output in a single pass.
+ * Samples are stored at a fixed iteration stride. Whenever the buffer is full,
+ * every other sample is discarded and the stride is doubled, leaving at most
+ * {@code 2 * limit} evenly spaced samples regardless of the number of iterations.
+ */
+public class SampleBuffer {
+	// Size limits
+	private final int limit;
+	private final int capacity;
+	// Recorded samples
+	private long[] iterations;
+	private double[] tValues;
+	private double[] xValues;
+	private double[] vValues;
+	private int size;
+	// Sampling stride
+	private long stride;
+	private long next;
+	// Most recent state
+	private long lastIteration;
+	private double lastT;
+	private double lastX;
+	private double lastV;
+
+
+	// Constructor
+	/**
+	 * Creates a buffer reduced to at most {@code limit} samples when finished.
+	 */
+	public SampleBuffer(int limit) {
+		this.limit = limit;
+		this.capacity = 2 * limit;
+
+		// One extra slot is reserved for the final state
+		iterations = new long[capacity + 1];
+		tValues = new double[capacity + 1];
+		xValues = new double[capacity + 1];
+		vValues = new double[capacity + 1];
+
+		stride = 1;
+		next = 0;
+		lastIteration = -1;
+	}
+
+
+	// Sampling
+	/**
+	 * Offers the state of given iteration, reached at time t. Iterations must be offered in increasing order, starting at 0.
+	 */
+	public void offer(long iteration, double t, double x, double v) {
+		// Keep track of the most recent state
+		lastIteration = iteration;
+		lastT = t;
+		lastX = x;
+		lastV = v;
+
+		// Break if iteration is not due for sampling
+		if (iteration != next) return;
+
+		// Record sample
+		iterations[size] = iteration;
+		tValues[size] = t;
+		xValues[size] = x;
+		vValues[size] = v;
+		size++;
+		next += stride;
+
+		// Discard every other sample and double stride if full
+		if (size == capacity) {
+			for (int i = 0; i < limit; i++) {
+				iterations[i] = iterations[2 * i];
+				tValues[i] = tValues[2 * i];
+				xValues[i] = xValues[2 * i];
+				vValues[i] = vValues[2 * i];
+			}
+			size = limit;
+			stride *= 2;
+		}
+	}
+
+	/**
+	 * Appends the final state and reduces the buffer to at most {@code limit} evenly spaced samples.
+	 * Call once, after the last iteration has been offered.
+	 */
+	public void finish() {
+		// Make sure the final state is included
+		if (lastIteration >= 0  &&  (size == 0  ||  iterations[size - 1] != lastIteration)) {
+			iterations[size] = lastIteration;
+			tValues[size] = lastT;
+			xValues[size] = lastX;
+			vValues[size] = lastV;
+			size++;
+		}
+
+		// Verify that reduction is necessary
+		if (size <= limit) {
+			iterations = Arrays.copyOf(iterations, size);
+			tValues = Arrays.copyOf(tValues, size);
+			xValues = Arrays.copyOf(xValues, size);
+			vValues = Arrays.copyOf(vValues, size);
+			return;
+		}
+
+		// Pick evenly indexed samples, including both endpoints
+		long[] reducedIterations = new long[limit];
+		double[] reducedT = new double[limit];
+		double[] reducedX = new double[limit];
+		double[] reducedV = new double[limit];
+		double step = ((double) size - 1d)  /  ((double) limit - 1d);
+
+		for (int i = 0; i < limit; i++) {
+			int index = (int) Math.round(step * (double) i);
+			reducedIterations[i] = iterations[index];
+			reducedT[i] = tValues[index];
+			reducedX[i] = xValues[index];
+			reducedV[i] = vValues[index];
+		}
+
+		iterations = reducedIterations;
+		tValues = reducedT;
+		xValues = reducedX;
+		vValues = reducedV;
+		size = limit;
+	}
+
+
+	// Getters
+	public int size() {return size;}
+	public long getIteration(int i) {return iterations[i];}
+	public double getT(int i) {return tValues[i];}
+	public double getX(int i) {return xValues[i];}
+	public double getV(int i) {return vValues[i];}
+}
@@ -0,0 +1,427 @@
+package simulation;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.IntConsumer;
+
+import enums.Interpolation;
+import enums.Outcome;
+import functions.AbstractDifferentiable;
+import parsers.DataRegistry;
+import parsers.Dataset;
+
+/**
+ * Headless simulation engine. Fits a track to tracking data and integrates the motion of an object rolling along it.
+ * All parameters are read from an immutable {@link TraceConfig}, so traces may be run on any thread, without a display.
+ * Running traces end with a CancellationException if the computing thread is interrupted.
+ */
+public class Simulation {
+	//Constants
+	public static final int SIZE_LIMIT = 10000;
+	//Interpolated samples per accepted adaptive step
+	private static final int DENSE_OUTPUT = 16;
+	public static final String[] CHANNELS = new String[] {
+			"Acceleration",
+			"Velocity",
+			"Position (x)",
+			"Position (y)",
+			"Time (s)",
+			"Total energy",
+			"Kinetic energy",
+			"Potential energy",
+			"Raw data (t)",
+			"Raw data (x)",
+			"Raw data (y)",
+			"Raw data (v)",
+			"Normal force",
+			"Friction force",
+			"Slope angle (Rad)",
+			"Slope angle (Deg)",
+			"Radius of Curvature"};
+	private static final int TRACK_CACHE_SIZE = 32;
+	
+	//Fitted functions, shared by all traces
+	private static final TrackCache TRACKS = new TrackCache(TRACK_CACHE_SIZE);
+	
+	
+	// Constructor
+	private Simulation() {}
+	
+	
+	// Raw data
+	/**
+	 * Returns the raw data channels of given track of given tracking file. Returns empty channels if no file is given.
+	 */
+	public static TraceResult rawData(File file, int track) {
+		return rawData((file == null) ? null : DataRegistry.get(file, track));
+	}
+	
+	/**
+	 * Returns the raw data channels of given dataset, sharing its' columns. Returns empty channels if no dataset is given.
+	 */
+	public static TraceResult rawData(Dataset dataset) {
+		//Raw data columns
+		double[] tRaw = (dataset == null) ? new double[0] : dataset.getT();
+		double[] xRaw = (dataset == null) ? new double[0] : dataset.getX();
+		double[] yRaw = (dataset == null) ? new double[0] : dataset.getY();
+		
+		//Fill result, velocity is derived on request
+		TraceResult result = new TraceResult();
+		result.putColumn("Raw data (t)", tRaw);
+		result.putColumn("Raw data (x)", xRaw);
+		result.putColumn("Raw data (y)", yRaw);
+		result.putColumn("Raw data (v)", tRaw.length, i -> {
+			if (i == 0) return 0;
+			
+			double dy = yRaw[i] - yRaw[i - 1];
+			double dx = xRaw[i] - xRaw[i - 1];
+			return Math.sqrt(dy*dy + dx*dx) / 0.01;
+		});
+		return result;
+	}
+	
+	
+	// Interpolation
+	/**
+	 * Fits a function of given interpolation type to the tracking data of given track of given file.
+	 * Fitted functions are cached, so the file is only parsed and fitted again once it has changed on disk.
+	 */
+	public static AbstractDifferentiable fit(File file, int track, Interpolation interpolation) {
+		return TRACKS.get(file, track, interpolation, () -> fitFile(file, track, interpolation)).cursor();
+	}
+	
+	/**
+	 * Removes all cached fitted functions.
+	 */
+	public static void clearCache() {
+		TRACKS.clear();
+	}
+	
+	/**
+	 * Parses given file and fits a function of given interpolation type to the tracking data of given track.
+	 */
+	private static AbstractDifferentiable fitFile(File file, int track, Interpolation interpolation) {
+		switch (interpolation) {
+		case POLYNOMIAL:
+			return analysis.Interpolation.polynomialInterpolation(file, track);
+		case POLYNOMIAL_SPLINE:
+			return analysis.Interpolation.polynomialSplineInterpolation(file, track);
+		default:
+			throw new IllegalArgumentException(String.format("Unsupported interpolation: \"%s\".", interpolation));
+		}
+	}
+	
+	
+	// Trace
+	/**
+	 * Performs a trace of given configuration.
+	 */
+	public static SimulationResult run(TraceConfig config) {
+		return run(config, null);
+	}
+	
+	/**
+	 * Performs a trace of given configuration, reporting progress in percent of track length to given consumer (may be null).
+	 */
+	public static SimulationResult run(TraceConfig config, IntConsumer progress) {
+		config.validate();
+		return run(config, fit(config.getFile(), config.getTrack(), config.getInterpolation()), progress);
+	}
+	
+	/**
+	 * Performs a trace of given configuration along an already fitted function, ignoring the configured file and interpolation.
+	 * Reports progress in percent of track length to given consumer (may be null).
+	 * The function is only read, so one fitted function may be shared by traces running in parallel.
+	 */
+	public static SimulationResult run(TraceConfig config, AbstractDifferentiable func, IntConsumer progress) {
+		config.validate();
+		
+		//Validate range of x-coordinates within the track
+		double[] domain = func.getDomain();
+		if (!(Math.max(config.getMinX(), domain[0]) < Math.min(config.getMaxX(), domain[1])))
+			throw new IllegalArgumentException("Start X must be less than end X, within the domain of the track.");
+		
+		// Perform trace using given integration method
+		switch (config.getIntegration()) {
+		case EULER_METHOD:
+			return stepTrace(config, func, analysis.Integration::eulerStep, progress);
+		case EULER_IMPROVED_METHOD:
+			return stepTrace(config, func, analysis.Integration::heunStep, progress);
+		case RUNGE_KUTTA_METHOD:
+			return stepTrace(config, func, analysis.Integration::rungeKuttaStep, progress);
+		case VELOCITY_VERLET_METHOD:
+			return stepTrace(config, func, analysis.Integration::verletStep, progress);
+		case DORMAND_PRINCE_METHOD:
+			return adaptiveTrace(config, func, progress);
+		default:
+			throw new IllegalArgumentException(String.format("Unsupported integration: \"%s\".", config.getIntegration()));
+		}
+	}
+	
+	/**
+	 * Trace performed using given fixed step integration method.
+	 * Integration output is decimated on the fly, requiring only a single pass.
+	 */
+	private static SimulationResult stepTrace(TraceConfig config, AbstractDifferentiable func,
+											  analysis.Integration.Stepper stepper, IntConsumer progress) {
+		//Used to compute simulation time
+		Instant start = Instant.now();
+		
+		// Set initial parameters
+		double[] domain = func.getDomain();
+		double min = Math.max(config.getMinX(), domain[0]);
+		double max = Math.min(config.getMaxX(), domain[1]);
+		double[] state = new double[] { min, config.getInitV() };
+		double step = config.getStep();
+		double mass = config.getMass();
+		double inertia = config.getInertia().VALUE;
+		
+		//Keeps track of iterations
+		long iter = 0;
+		
+		//Keeps track of progress, in percent of track length
+		int reportedProgress = 0;
+		
+		//Decimated output samples
+		SampleBuffer buffer = new SampleBuffer(SIZE_LIMIT);
+		
+		//Track described by fitted function, and work array
+		analysis.Integration.Track track = createTrack(func, inertia);
+		double[] work = new double[] { Double.NaN, Double.NaN, Double.NaN };
+		
+		//Ends trace early if it cannot complete
+		TraceMonitor monitor = new TraceMonitor(func, mass, inertia, state, config.getMaxIterations(), config.getMaxTime());
+		Outcome outcome = null;
+		
+		//Iterate until track is complete (x has reached its' end value)
+		while (state[0] < max) {
+			buffer.offer(iter, iter * step, state[0], state[1]);
+			iter++;
+			stepper.step(track, state, step, work);
+			
+			//Verify that trace can continue
+			outcome = monitor.check(iter, iter * step, state, max);
+			if (outcome != null) break;
+			
+			//Report progress
+			reportedProgress = reportProgress(progress, reportedProgress, (state[0] - min) / (max - min));
+		}
+		buffer.finish();
+		
+		return createResult(config, func, buffer, outcome, iter, 0, step, step, iter * step, start);
+	}
+	
+	/**
+	 * Trace performed using the adaptive Dormand-Prince method.
+	 * The step size is chosen from the local error estimate, keeping it within the configured tolerance.
+	 */
+	private static SimulationResult adaptiveTrace(TraceConfig config, AbstractDifferentiable func, IntConsumer progress) {
+		//Used to compute simulation time
+		Instant start = Instant.now();
+		
+		// Set initial parameters
+		double[] domain = func.getDomain();
+		double min = Math.max(config.getMinX(), domain[0]);
+		double max = Math.min(config.getMaxX(), domain[1]);
+		double[] state = new double[] { min, config.getInitV() };
+		double tolerance = config.getTolerance();
+		double mass = config.getMass();
+		double inertia = config.getInertia().VALUE;
+		double t = 0;
+		
+		// Initial step size, corrected by the controller within the first few attempts
+		double step = 0.01 * Math.pow(tolerance, 0.2);
+		double minStep = Double.POSITIVE_INFINITY;
+		double maxStep = 0;
+		
+		//Keeps track of accepted and rejected steps
+		long accepted = 0;
+		long rejected = 0;
+		
+		//Keeps track of progress, in percent of track length
+		int reportedProgress = 0;
+		
+		//Decimated output samples, interpolated within each accepted step
+		SampleBuffer buffer = new SampleBuffer(SIZE_LIMIT);
+		long samples = 0;
+		
+		//Track described by fitted function, and work arrays
+		analysis.Integration.Track track = createTrack(func, inertia);
+		double[] work = new double[2];
+		double[] dense = new double[2];
+		
+		//Derivative [x', v'] at current state, carried over between steps, and state and derivative at the start of the step
+		double[] slope = new double[2];
+		double[] previous = new double[2];
+		double[] previousSlope = new double[2];
+		track.eval(state[0], work);
+		slope[0] = state[1] * work[0];
+		slope[1] = work[1];
+		
+		//Ends trace early if it cannot complete
+		TraceMonitor monitor = new TraceMonitor(func, mass, inertia, state, config.getMaxIterations(), config.getMaxTime());
+		Outcome outcome = null;
+		
+		//Iterate until track is complete (x has reached its' end value)
+		buffer.offer(samples, t, state[0], state[1]);
+		while (state[0] < max) {
+			// Limit step to slightly beyond the end of the track
+			if (slope[0] > 0)
+				step = Math.min(step, 1.05 * (max - state[0]) / slope[0]);
+			
+			System.arraycopy(state, 0, previous, 0, 2);
+			System.arraycopy(slope, 0, previousSlope, 0, 2);
+			double t0 = t;
+			double error = analysis.Integration.dormandPrinceStep(track, state, slope, step, tolerance, work);
+			
+			// Step size factor from the error estimate, limited to avoid oscillation
+			double factor = (error == 0) ? 5d : 0.9 * Math.pow(error, -0.2);
+			
+			if (error <= 1d) {
+				// Accepted, state has been advanced
+				t += step;
+				accepted++;
+				minStep = Math.min(minStep, step);
+				maxStep = Math.max(maxStep, step);
+				
+				// Record interpolated states within the step. The step crossing the end of the track is cut off at its' end,
+				// so that the last sample, total time and energy difference all describe the state at the end of the track
+				if (Double.isFinite(state[0])  &&  Double.isFinite(state[1])) {
+					double end = (state[0] >= max) ? analysis.Integration.hermiteCrossing(previous, previousSlope, state, slope, step, max, dense) : 1d;
+					for (int k = 1; k <= DENSE_OUTPUT; k++) {
+						double theta = end * k / DENSE_OUTPUT;
+						analysis.Integration.hermite(previous, previousSlope, state, slope, step, theta, dense);
+						buffer.offer(++samples, t0 + theta * step, (theta == end  &&  end < 1d) ? max : dense[0], dense[1]);
+					}
+					t = t0 + end * step;
+				}
+				step *= Math.min(5d, Math.max(0.2, factor));
+			} else {
+				// Rejected, retry with a smaller step
+				rejected++;
+				step *= Math.min(1d, Math.max(0.2, factor));
+				
+				// Break if error is invalid, or step size no longer advances time
+				if (Double.isNaN(error)) {
+					outcome = Outcome.DIVERGED;
+					break;
+				}
+				if (t + step == t) {
+					outcome = Outcome.STALLED;
+					break;
+				}
+			}
+			
+			//Verify that trace can continue
+			outcome = monitor.check(accepted + rejected, t, state, max);
+			if (outcome != null) break;
+			
+			//Report progress
+			reportedProgress = reportProgress(progress, reportedProgress, (state[0] - min) / (max - min));
+		}
+		buffer.finish();
+		
+		if (accepted == 0) {
+			minStep = Double.NaN;
+			maxStep = Double.NaN;
+		}
+		return createResult(config, func, buffer, outcome, accepted, rejected, minStep, maxStep, t, start);
+	}
+	
+	
+	// Helpers
+	/**
+	 * Returns the track described by given function, for an object of given inertia constant.
+	 * Intermediate stages beyond the domain use its' endpoints. The returned track is not thread safe.
+	 */
+	private static analysis.Integration.Track createTrack(AbstractDifferentiable func, double inertia) {
+		//Function cursor, and reused output of function evaluations [f(x), f'(x), f''(x)]
+		AbstractDifferentiable cursor = func.cursor();
+		double[] domain = func.getDomain();
+		double[] jet = new double[3];
+		
+		return (x, out) -> {
+			// Slope angle α(x), positive for a curve with a negative derivative
+			cursor.evalJet(Math.min(Math.max(x, domain[0]), domain[1]), jet);
+			double angle = Math.atan(-jet[1]);
+			
+			out[0] = Math.cos(angle);
+			out[1] = Physics.getAccel(angle, inertia);
+		};
+	}
+	
+	/**
+	 * Reports every whole percent reached since the previous report, and returns the last reported percentage.
+	 */
+	private static int reportProgress(IntConsumer progress, int reportedProgress, double fraction) {
+		int currentProgress = Math.min((int) (100 * fraction), 100);
+		while (reportedProgress < currentProgress) {
+			reportedProgress++;
+			if (progress != null)
+				progress.accept(reportedProgress);
+		}
+		return reportedProgress;
+	}
+	
+	/**
+	 * Creates a result from the sampled integrator state (t, x, v) and the summary of the integration.
+	 */
+	private static SimulationResult createResult(TraceConfig config, AbstractDifferentiable func, SampleBuffer buffer, Outcome outcome,
+												 long steps, long rejectedSteps, double minStep, double maxStep, double totalTime, Instant start) {
+		double mass = config.getMass();
+		double inertia = config.getInertia().VALUE;
+		
+		// Store integrator state, derived channels are evaluated on request
+		int n = buffer.size();
+		double[] xColumn = new double[n], vColumn = new double[n], tColumn = new double[n];
+		for (int i = 0; i < n; i++) {
+			xColumn[i] = buffer.getX(i);
+			vColumn[i] = buffer.getV(i);
+			tColumn[i] = buffer.getT(i);
+		}
+		TraceResult data = createData(func, mass, inertia, tColumn, xColumn, vColumn);
+		
+		// End computation timer
+		Duration computationTime = Duration.between(start, Instant.now());
+		
+		// Energy difference between first and last sample, evaluated on a cursor as the function may be shared
+		AbstractDifferentiable cursor = func.cursor();
+		double initEnergy = Physics.getTotalEnergy(cursor, mass, inertia, xColumn[0], vColumn[0]);
+		double endEnergy = Physics.getTotalEnergy(cursor, mass, inertia, xColumn[n - 1], vColumn[n - 1]);
+		double energyDifference = ((initEnergy - endEnergy) / endEnergy)*100;
+		
+		return new SimulationResult(config, func, data, (outcome == null) ? Outcome.COMPLETED : outcome,
+									steps, rejectedSteps, minStep, maxStep, totalTime, energyDifference, computationTime);
+	}
+	
+	/**
+	 * Creates the channels of a trace from the sampled integrator state (t, x, v).
+	 * All other channels are derived from the state, and only evaluated once requested.
+	 */
+	private static TraceResult createData(AbstractDifferentiable trackFunc, double mass, double inertia,
+										  double[] tColumn, double[] xColumn, double[] vColumn) {
+		int n = xColumn.length;
+		AbstractDifferentiable func = trackFunc.cursor();
+		TraceResult result = new TraceResult();
+		
+		// Integrator state
+		result.putColumn("Time (s)", tColumn);
+		result.putColumn("Position (x)", xColumn);
+		result.putColumn("Velocity", vColumn);
+		
+		// Derived channels
+		result.putColumn("Acceleration", n, i -> Physics.getAccel(func, inertia, xColumn[i]));
+		result.putColumn("Position (y)", n, i -> func.eval(xColumn[i]));
+		result.putColumn("Total energy", n, i -> Physics.getTotalEnergy(func, mass, inertia, xColumn[i], vColumn[i]));
+		result.putColumn("Kinetic energy", n, i -> Physics.getKineticEnergy(mass, inertia, vColumn[i]));
+		result.putColumn("Potential energy", n, i -> Physics.getPotentialEnergy(func, mass, xColumn[i]));
+		result.putColumn("Normal force", n, i -> Physics.getNormalForce(func, mass, xColumn[i], vColumn[i]));
+		result.putColumn("Friction force", n, i -> Physics.getFrictionForce(func, mass, inertia, xColumn[i]));
+		result.putColumn("Slope angle (Rad)", n, i -> func.slopeAngle(xColumn[i]));
+		result.putColumn("Slope angle (Deg)", n, i -> func.slopeAngleDegrees(xColumn[i]));
+		result.putColumn("Radius of Curvature", n, i -> func.radiusOfCurvature(xColumn[i]));
+		
+		return result;
+	}
+}
@@ -0,0 +1,68 @@
+package simulation;
+
+import java.time.Duration;
+
+import enums.Outcome;
+import functions.AbstractDifferentiable;
+
+/**
+ * Immutable result of a single trace: the computed channels along with a summary of the integration.
+ */
+public class SimulationResult {
+	private final TraceConfig config;
+	private final AbstractDifferentiable function;
+	private final TraceResult data;
+	private final Outcome outcome;
+	private final long steps;
+	private final long rejectedSteps;
+	private final double minStep;
+	private final double maxStep;
+	private final double totalTime;
+	private final double energyDifference;
+	private final Duration computationTime;
+	
+	
+	// Constructor
+	public SimulationResult(TraceConfig config, AbstractDifferentiable function, TraceResult data, Outcome outcome,
+							long steps, long rejectedSteps, double minStep, double maxStep,
+							double totalTime, double energyDifference, Duration computationTime) {
+		this.config = config;
+		this.function = function;
+		this.data = data;
+		this.outcome = outcome;
+		this.steps = steps;
+		this.rejectedSteps = rejectedSteps;
+		this.minStep = minStep;
+		this.maxStep = maxStep;
+		this.totalTime = totalTime;
+		this.energyDifference = energyDifference;
+		this.computationTime = computationTime;
+	}
+	
+	
+	/*
+	 * Getters
+	 */
+	/** Returns the configuration that was traced. */
+	public TraceConfig getConfig() {return config;}
+	/** Returns the fitted function describing the track. */
+	public AbstractDifferentiable getFunction() {return function;}
+	/** Returns the computed channels, keyed by channel name (see {@link Simulation#CHANNELS}). */
+	public TraceResult getData() {return data;}
+	/** Returns the reason the trace ended. */
+	public Outcome getOutcome() {return outcome;}
+	/** Returns the number of completed (accepted) steps. */
+	public long getSteps() {return steps;}
+	/** Returns the number of rejected steps, always 0 for fixed step methods. */
+	public long getRejectedSteps() {return rejectedSteps;}
+	/** Returns the smallest step size used, or NaN if no step was completed. */
+	public double getMinStep() {return minStep;}
+	/** Returns the largest step size used, or NaN if no step was completed. */
+	public double getMaxStep() {return maxStep;}
+	/** Returns the simulated time, in seconds. */
+	public double getTotalTime() {return totalTime;}
+	/** Returns the relative difference between initial and final total energy, in percent. */
+	public double getEnergyDifference() {return energyDifference;}
+	/** Returns the time spent computing the trace. */
+	public Duration getComputationTime() {return computationTime;}
+}
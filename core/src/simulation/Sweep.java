@@ -0,0 +1,400 @@
+package simulation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import enums.Inertia;
+import enums.Integration;
+import enums.Interpolation;
+import enums.Parameter;
+import functions.AbstractDifferentiable;
+
+/**
+ * Parameter sweep, tracing every combination of values along a set of axes, starting from a base configuration.
+ * Tracks are fitted once per file and interpolation type, and shared by all points of the sweep.
+ * Points are traced in parallel on a fork/join pool.
+ */
+public class Sweep {
+	// Data
+	private final TraceConfig base;
+	private final List<Axis> axes = new ArrayList<>();
+	
+	
+	// Constructor
+	/**
+	 * Creates a sweep without axes, tracing only given base configuration.
+	 */
+	public Sweep(TraceConfig base) {
+		this.base = base;
+	}
+	
+	
+	// Grid
+	/**
+	 * Adds an axis to the grid, and returns this sweep.
+	 * Points are ordered by the first axis, then by the second axis, and so on.
+	 */
+	public Sweep add(Axis axis) {
+		for (Axis other : axes)
+			if (other.getParameter() == axis.getParameter())
+				throw new IllegalArgumentException(String.format("Parameter \"%s\" is already swept.", axis.getParameter().TEXT));
+		
+		axes.add(axis);
+		return this;
+	}
+	
+	/** Returns the axes of the grid, in order. */
+	public List<Axis> getAxes() {return Collections.unmodifiableList(axes);}
+	/** Returns the configuration all points are derived from. */
+	public TraceConfig getBase() {return base;}
+	
+	/**
+	 * Returns the number of points of the grid.
+	 */
+	public int size() {
+		long size = 1;
+		for (Axis axis : axes) {
+			size *= axis.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IllegalStateException("Sweep has too many points.");
+		}
+		return (int) size;
+	}
+	
+	/**
+	 * Returns the configuration of the point with given index, where the last axis varies fastest.
+	 */
+	public TraceConfig getConfig(int point) {
+		TraceConfig config = base;
+		for (int i = axes.size() - 1; i >= 0; i--) {
+			Axis axis = axes.get(i);
+			config = axis.apply(config, point % axis.size());
+			point /= axis.size();
+		}
+		return config;
+	}
+	
+	
+	// Run
+	/**
+	 * Traces all points of the grid on the common fork/join pool.
+	 */
+	public SweepResult run() {
+		return run(ForkJoinPool.commonPool(), null);
+	}
+	
+	/**
+	 * Traces all points of the grid on given pool, reporting the number of finished points to given consumer (may be null).
+	 * The consumer is called from the worker threads. Points that cannot be traced are reported as failed, without
+	 * stopping the sweep. If the calling thread is interrupted, no further points are started and a CancellationException is thrown.
+	 */
+	public SweepResult run(ForkJoinPool pool, IntConsumer progress) {
+		int n = size();
+		TraceConfig[] configs = new TraceConfig[n];
+		for (int i = 0; i < n; i++)
+			configs[i] = getConfig(i);
+		
+		// Distinct tracks, one for each combination of file, track and interpolation
+		Map<List<Object>, Integer> trackIndex = new LinkedHashMap<>();
+		List<TraceConfig> trackConfigs = new ArrayList<>();
+		int[] pointTrack = new int[n];
+		for (int i = 0; i < n; i++) {
+			List<Object> key = Arrays.asList(configs[i].getFile(), configs[i].getTrack(), configs[i].getInterpolation());
+			Integer index = trackIndex.get(key);
+			if (index == null) {
+				index = trackConfigs.size();
+				trackIndex.put(key, index);
+				trackConfigs.add(configs[i]);
+			}
+			pointTrack[i] = index;
+		}
+		
+		// Fit tracks in parallel
+		AtomicBoolean cancelled = new AtomicBoolean();
+		AbstractDifferentiable[] tracks = new AbstractDifferentiable[trackConfigs.size()];
+		RuntimeException[] trackErrors = new RuntimeException[trackConfigs.size()];
+		invoke(pool, cancelled, new ForEach(0, tracks.length, cancelled, i -> {
+			TraceConfig config = trackConfigs.get(i);
+			try {
+				if (config.getFile() == null  ||  config.getInterpolation() == null)
+					throw new IllegalArgumentException("File and interpolation must be selected.");
+				tracks[i] = Simulation.fit(config.getFile(), config.getTrack(), config.getInterpolation());
+			} catch (RuntimeException e) {
+				trackErrors[i] = e;
+			}
+		}));
+		
+		// Trace points in parallel, sharing the fitted tracks
+		SweepResult.Point[] points = new SweepResult.Point[n];
+		AtomicInteger finished = new AtomicInteger();
+		invoke(pool, cancelled, new ForEach(0, n, cancelled, i -> {
+			int track = pointTrack[i];
+			try {
+				if (trackErrors[track] != null)
+					throw trackErrors[track];
+				points[i] = new SweepResult.Point(configs[i], Simulation.run(configs[i], tracks[track], null));
+			} catch (RuntimeException e) {
+				points[i] = new SweepResult.Point(configs[i], e);
+			}
+			
+			if (progress != null)
+				progress.accept(finished.incrementAndGet());
+		}));
+		
+		return new SweepResult(axes, points);
+	}
+	
+	
+	// Helpers
+	/**
+	 * Runs given task on given pool, waiting for it to finish.
+	 * Stops remaining work and throws a CancellationException if the calling thread is interrupted.
+	 */
+	private static void invoke(ForkJoinPool pool, AtomicBoolean cancelled, ForEach task) {
+		pool.execute(task);
+		try {
+			task.get();
+		} catch (InterruptedException e) {
+			cancelled.set(true);
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Sweep cancelled.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+	
+	/**
+	 * Returns given number of evenly spaced values from start to end, both included.
+	 */
+	public static double[] linear(double start, double end, int count) {
+		if (count < 1)
+			throw new IllegalArgumentException("Number of values must be positive.");
+		
+		double[] values = new double[count];
+		for (int i = 0; i < count - 1; i++)
+			values[i] = start + (end - start) * i / (count - 1);
+		values[count - 1] = (count == 1) ? start : end;
+		return values;
+	}
+	
+	/**
+	 * Returns given number of logarithmically spaced values from start to end, both included. Used for step sizes and tolerances.
+	 */
+	public static double[] logarithmic(double start, double end, int count) {
+		if (!(start > 0  &&  end > 0))
+			throw new IllegalArgumentException("Logarithmic values must be positive.");
+		
+		double[] values = linear(Math.log(start), Math.log(end), count);
+		for (int i = 0; i < count; i++)
+			values[i] = Math.exp(values[i]);
+		values[0] = start;
+		if (count > 1)
+			values[count - 1] = end;
+		return values;
+	}
+	
+	
+	/**
+	 * Runs an action for every index of a range, splitting the range until every task holds a single index.
+	 * Each index is a complete trace or fit, large enough to be worth a task of its' own.
+	 */
+	private static class ForEach extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int from, to;
+		private final AtomicBoolean cancelled;
+		private final IntConsumer action;
+		
+		private ForEach(int from, int to, AtomicBoolean cancelled, IntConsumer action) {
+			this.from = from;
+			this.to = to;
+			this.cancelled = cancelled;
+			this.action = action;
+		}
+		
+		@Override
+		protected void compute() {
+			if (cancelled.get()) return;
+			
+			if (to - from <= 1) {
+				if (from < to)
+					action.accept(from);
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ForEach(from, mid, cancelled, action), new ForEach(mid, to, cancelled, action));
+			}
+		}
+	}
+	
+	
+	/**
+	 * Values of a single swept parameter.
+	 */
+	public static class Axis {
+		private final Parameter parameter;
+		private final List<Object> values;
+		
+		private Axis(Parameter parameter, List<Object> values) {
+			if (values.isEmpty())
+				throw new IllegalArgumentException(String.format("No values given for \"%s\".", parameter.TEXT));
+			
+			this.parameter = parameter;
+			this.values = Collections.unmodifiableList(values);
+		}
+		
+		/**
+		 * Creates an axis of numeric values, for mass, initial velocity, step size, tolerance, start or end x.
+		 */
+		public static Axis of(Parameter parameter, double... values) {
+			switch (parameter) {
+			case MASS: case INIT_V: case STEP: case TOLERANCE: case MIN_X: case MAX_X:
+				List<Object> list = new ArrayList<>();
+				for (double value : values)
+					list.add(value);
+				return new Axis(parameter, list);
+			default:
+				throw new IllegalArgumentException(String.format("Parameter \"%s\" is not numeric.", parameter.TEXT));
+			}
+		}
+		
+		/**
+		 * Creates an axis over given tracking files.
+		 */
+		public static Axis files(File... files) {
+			return new Axis(Parameter.FILE, new ArrayList<>(Arrays.asList(files)));
+		}
+		
+		/**
+		 * Creates an axis over given integration methods.
+		 */
+		public static Axis integrations(Integration... integrations) {
+			return new Axis(Parameter.INTEGRATION, new ArrayList<>(Arrays.asList(integrations)));
+		}
+		
+		/**
+		 * Creates an axis over given interpolation types.
+		 */
+		public static Axis interpolations(Interpolation... interpolations) {
+			return new Axis(Parameter.INTERPOLATION, new ArrayList<>(Arrays.asList(interpolations)));
+		}
+		
+		/**
+		 * Creates an axis over given object types.
+		 */
+		public static Axis inertias(Inertia... inertias) {
+			return new Axis(Parameter.INERTIA, new ArrayList<>(Arrays.asList(inertias)));
+		}
+		
+		/**
+		 * Parses an axis from text. Values are separated by semicolons, and decimal commas are accepted.
+		 * Numeric parameters also accept evenly spaced ranges written as "start:end:count".
+		 * Integration, interpolation and inertia accept names or displayed text, and use all types if no value is given.
+		 */
+		public static Axis parse(Parameter parameter, String text) {
+			List<String> tokens = new ArrayList<>();
+			for (String token : text.split(";"))
+				if (!token.trim().isEmpty())
+					tokens.add(token.trim());
+			
+			switch (parameter) {
+			case FILE:
+				return files(tokens.stream().map(File::new).toArray(File[]::new));
+			case INTEGRATION:
+				return integrations(parseEnums(Integration.class, tokens).toArray(new Integration[0]));
+			case INTERPOLATION:
+				return interpolations(parseEnums(Interpolation.class, tokens).toArray(new Interpolation[0]));
+			case INERTIA:
+				return inertias(parseEnums(Inertia.class, tokens).toArray(new Inertia[0]));
+			default:
+				List<Double> values = new ArrayList<>();
+				for (String token : tokens) {
+					String[] range = token.split(":");
+					try {
+						if (range.length == 1) {
+							values.add(Double.parseDouble(token.replace(',', '.')));
+						} else if (range.length == 3) {
+							for (double value : linear(Double.parseDouble(range[0].trim().replace(',', '.')),
+													   Double.parseDouble(range[1].trim().replace(',', '.')),
+													   Integer.parseInt(range[2].trim())))
+								values.add(value);
+						} else {
+							throw new NumberFormatException();
+						}
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException(String.format("Invalid value \"%s\" for \"%s\".", token, parameter.TEXT));
+					}
+				}
+				return of(parameter, values.stream().mapToDouble(Double::doubleValue).toArray());
+			}
+		}
+		
+		/** Returns the swept parameter. */
+		public Parameter getParameter() {return parameter;}
+		/** Returns the number of values. */
+		public int size() {return values.size();}
+		/** Returns the value with given index. */
+		public Object getValue(int index) {return values.get(index);}
+		
+		/**
+		 * Returns the value with given index, as displayed in tables.
+		 */
+		public String getLabel(int index) {
+			Object value = values.get(index);
+			return (value instanceof File) ? ((File) value).getName() : String.valueOf(value);
+		}
+		
+		/**
+		 * Returns a copy of given configuration, with the swept parameter set to the value of given index.
+		 */
+		TraceConfig apply(TraceConfig config, int index) {
+			Object value = values.get(index);
+			switch (parameter) {
+			case FILE:			return config.withFile((File) value);
+			case INTEGRATION:	return config.withIntegration((Integration) value);
+			case INTERPOLATION:	return config.withInterpolation((Interpolation) value);
+			case INERTIA:		return config.withInertia((Inertia) value);
+			case MASS:			return config.withMass((Double) value);
+			case INIT_V:		return config.withInitV((Double) value);
+			case STEP:			return config.withStep((Double) value);
+			case TOLERANCE:		return config.withTolerance((Double) value);
+			case MIN_X:			return config.withMinX((Double) value);
+			case MAX_X:			return config.withMaxX((Double) value);
+			default:
+				throw new IllegalArgumentException(String.format("Unsupported parameter: \"%s\".", parameter));
+			}
+		}
+		
+		/**
+		 * Parses enum constants by name or displayed text, ignoring case. Returns all constants if no token is given.
+		 */
+		private static <E extends Enum<E>> List<E> parseEnums(Class<E> type, List<String> tokens) {
+			if (tokens.isEmpty())
+				return Arrays.asList(type.getEnumConstants());
+			
+			List<E> constants = new ArrayList<>();
+			for (String token : tokens) {
+				E match = null;
+				for (E constant : type.getEnumConstants())
+					if (constant.name().equalsIgnoreCase(token)  ||  constant.toString().equalsIgnoreCase(token))
+						match = constant;
+				if (match == null)
+					throw new IllegalArgumentException(String.format("Unknown %s: \"%s\".", type.getSimpleName(), token));
+				constants.add(match);
+			}
+			return constants;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package simulation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import enums.Outcome;
+
+/**
+ * Results of a parameter sweep, holding a summary of every traced point.
+ * Computed channels are not kept, so that large sweeps fit in memory.
+ */
+public class SweepResult {
+	// Data
+	private final List<Sweep.Axis> axes;
+	private final Point[] points;
+	// Constants
+	private static final String[] SUMMARY_HEADER = new String[] {
+			"Outcome", "Iterations", "Rejected steps", "Total time (s)", "Energy difference (%)", "Computation time (s)", "Error"};
+	
+	
+	// Constructor
+	SweepResult(List<Sweep.Axis> axes, Point[] points) {
+		this.axes = Collections.unmodifiableList(new ArrayList<>(axes));
+		this.points = points;
+	}
+	
+	
+	// Getters
+	/** Returns the axes of the sweep, in order. */
+	public List<Sweep.Axis> getAxes() {return axes;}
+	/** Returns the number of points. */
+	public int size() {return points.length;}
+	/** Returns the point with given index, where the last axis varies fastest. */
+	public Point getPoint(int point) {return points[point];}
+	
+	/**
+	 * Returns the point at given value index along every axis.
+	 */
+	public Point getPoint(int... index) {
+		if (index.length != axes.size())
+			throw new IllegalArgumentException(String.format("Expected %d indices, got %d.", axes.size(), index.length));
+		
+		int point = 0;
+		for (int i = 0; i < index.length; i++)
+			point = point * axes.get(i).size() + index[i];
+		return points[point];
+	}
+	
+	
+	// Matrix
+	/**
+	 * Returns given metric of every point as a matrix, ready to be drawn as a heatmap.
+	 * Rows follow the values of the first axis, and columns every combination of the remaining axes.
+	 * For a sweep over two parameters, element [i][j] is the point of the i:th value of the first and j:th value of the second.
+	 */
+	public double[][] getMatrix(ToDoubleFunction<Point> metric) {
+		int rows = axes.isEmpty() ? 1 : axes.get(0).size();
+		int columns = points.length / rows;
+		
+		double[][] matrix = new double[rows][columns];
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < columns; j++)
+				matrix[i][j] = metric.applyAsDouble(points[i * columns + j]);
+		return matrix;
+	}
+	
+	
+	// Table
+	/**
+	 * Returns the column names of the table, swept parameters followed by the trace summary.
+	 */
+	public String[] getHeader() {
+		String[] header = new String[axes.size() + SUMMARY_HEADER.length];
+		for (int i = 0; i < axes.size(); i++)
+			header[i] = axes.get(i).getParameter().TEXT;
+		System.arraycopy(SUMMARY_HEADER, 0, header, axes.size(), SUMMARY_HEADER.length);
+		return header;
+	}
+	
+	/**
+	 * Returns one row for every point, in order, with the columns of {@link #getHeader()}.
+	 */
+	public List<String[]> getTable() {
+		List<String[]> table = new ArrayList<>(points.length);
+		int[] index = new int[axes.size()];
+		
+		for (Point point : points) {
+			String[] row = new String[axes.size() + SUMMARY_HEADER.length];
+			for (int i = 0; i < axes.size(); i++)
+				row[i] = axes.get(i).getLabel(index[i]);
+			
+			int j = axes.size();
+			boolean failed = point.getOutcome() == null;
+			row[j++] = failed ? "Failed" : point.getOutcome().TEXT;
+			row[j++] = failed ? "" : String.valueOf(point.getSteps());
+			row[j++] = failed ? "" : String.valueOf(point.getRejectedSteps());
+			row[j++] = failed ? "" : String.valueOf(point.getTotalTime());
+			row[j++] = failed ? "" : String.valueOf(point.getEnergyDifference());
+			row[j++] = failed ? "" : String.valueOf(point.getComputationTime());
+			row[j++] = failed ? point.getError() : "";
+			table.add(row);
+			
+			// Advance index, last axis fastest
+			for (int i = axes.size() - 1; i >= 0; i--) {
+				if (++index[i] < axes.get(i).size()) break;
+				index[i] = 0;
+			}
+		}
+		return table;
+	}
+	
+	/**
+	 * Writes the table to given file, as tab separated columns with a header.
+	 */
+	public void write(File file) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(String.join("\t", getHeader()));
+			writer.newLine();
+			for (String[] row : getTable()) {
+				writer.write(String.join("\t", row));
+				writer.newLine();
+			}
+		}
+	}
+	
+	
+	/**
+	 * Summary of a single traced point. Numeric values are NaN if the point could not be traced.
+	 */
+	public static class Point {
+		private final TraceConfig config;
+		private final Outcome outcome;
+		private final long steps;
+		private final long rejectedSteps;
+		private final double totalTime;
+		private final double energyDifference;
+		private final double computationTime;
+		private final String error;
+		
+		Point(TraceConfig config, SimulationResult result) {
+			this.config = config;
+			this.outcome = result.getOutcome();
+			this.steps = result.getSteps();
+			this.rejectedSteps = result.getRejectedSteps();
+			this.totalTime = result.getTotalTime();
+			this.energyDifference = result.getEnergyDifference();
+			this.computationTime = result.getComputationTime().toNanos() / 1e9;
+			this.error = null;
+		}
+		
+		Point(TraceConfig config, RuntimeException error) {
+			this.config = config;
+			this.outcome = null;
+			this.steps = 0;
+			this.rejectedSteps = 0;
+			this.totalTime = Double.NaN;
+			this.energyDifference = Double.NaN;
+			this.computationTime = Double.NaN;
+			this.error = String.valueOf(error.getMessage()).replace('\t', ' ').replace('\n', ' ');
+		}
+		
+		/** Returns the traced configuration. */
+		public TraceConfig getConfig() {return config;}
+		/** Returns the reason the trace ended, or null if it could not be traced. */
+		public Outcome getOutcome() {return outcome;}
+		/** Returns the number of completed (accepted) steps. */
+		public long getSteps() {return steps;}
+		/** Returns the number of rejected steps. */
+		public long getRejectedSteps() {return rejectedSteps;}
+		/** Returns the simulated time, in seconds. */
+		public double getTotalTime() {return totalTime;}
+		/** Returns the relative difference between initial and final total energy, in percent. */
+		public double getEnergyDifference() {return energyDifference;}
+		/** Returns the time spent computing the trace, in seconds. */
+		public double getComputationTime() {return computationTime;}
+		/** Returns the reason the point could not be traced, or null. */
+		public String getError() {return error;}
+	}
+}
@@ -0,0 +1,140 @@
+package simulation;
+
+import java.io.File;
+
+import enums.Inertia;
+import enums.Integration;
+import enums.Interpolation;
+
+/**
+ * Immutable set of parameters describing a single trace.
+ * Modified copies are created using the {@code with} methods, leaving the original untouched.
+ */
+public class TraceConfig {
+	// Data
+	private final File file;
+	private final int track;
+	private final Integration integration;
+	private final Interpolation interpolation;
+	private final Inertia inertia;
+	private final double mass;
+	private final double minX;
+	private final double maxX;
+	private final double initV;
+	private final double step;
+	private final double tolerance;
+	private final long maxIterations;
+	private final double maxTime;
+	// Defaults
+	public static final double TOLERANCE = 1e-6;
+	public static final long MAX_ITERATIONS = 100000000;
+	public static final double MAX_TIME = 60;
+	
+	
+	// Constructors
+	/**
+	 * Creates a configuration using the default tolerance and budgets.
+	 */
+	public TraceConfig(File file, Integration integration, Interpolation interpolation, Inertia inertia,
+					   double mass, double minX, double maxX, double initV, double step) {
+		this(file, integration, interpolation, inertia, mass, minX, maxX, initV, step, TOLERANCE, MAX_ITERATIONS, MAX_TIME);
+	}
+	
+	/**
+	 * Creates a configuration of the first track of given file.
+	 */
+	public TraceConfig(File file, Integration integration, Interpolation interpolation, Inertia inertia,
+					   double mass, double minX, double maxX, double initV, double step,
+					   double tolerance, long maxIterations, double maxTime) {
+		this(file, 0, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);
+	}
+	
+	/**
+	 * Creates a configuration from given parameters. The track is the index of the traced track within the file.
+	 */
+	public TraceConfig(File file, int track, Integration integration, Interpolation interpolation, Inertia inertia,
+					   double mass, double minX, double maxX, double initV, double step,
+					   double tolerance, long maxIterations, double maxTime) {
+		this.file = file;
+		this.track = track;
+		this.integration = integration;
+		this.interpolation = interpolation;
+		this.inertia = inertia;
+		this.mass = mass;
+		this.minX = minX;
+		this.maxX = maxX;
+		this.initV = initV;
+		this.step = step;
+		this.tolerance = tolerance;
+		this.maxIterations = maxIterations;
+		this.maxTime = maxTime;
+	}
+	
+	
+	// Validation
+	/**
+	 * Throws an IllegalArgumentException if the configuration cannot be traced.
+	 */
+	public void validate() {
+		//Validate file and types
+		if (file == null  ||  integration == null  ||  interpolation == null  ||  inertia == null)
+			throw new IllegalArgumentException("File, integration, interpolation and inertia must be selected.");
+		if (track < 0)
+			throw new IllegalArgumentException("Track index cannot be negative.");
+		
+		//Validate mass
+		if (!(mass > 0))
+			throw new IllegalArgumentException("Mass must be positive.");
+		
+		//Validate inertia constant
+		if (inertia.VALUE < 0)
+			throw new IllegalArgumentException("Moment of inertia cannot be negative.");
+		
+		//Validate step size, or tolerance of adaptive integration
+		if (integration == Integration.DORMAND_PRINCE_METHOD) {
+			if (!(tolerance > 0))
+				throw new IllegalArgumentException("Tolerance must be positive.");
+		} else if (!(step > 0)) {
+			throw new IllegalArgumentException("Step size must be positive.");
+		}
+		
+		//Validate budgets
+		if (maxIterations <= 0  ||  !(maxTime > 0))
+			throw new IllegalArgumentException("Iteration and time limits must be positive.");
+	}
+	
+	
+	/*
+	 * Getters
+	 */
+	public File getFile() {return file;}
+	public int getTrack() {return track;}
+	public Integration getIntegration() {return integration;}
+	public Interpolation getInterpolation() {return interpolation;}
+	public Inertia getInertia() {return inertia;}
+	public double getMass() {return mass;}
+	public double getMinX() {return minX;}
+	public double getMaxX() {return maxX;}
+	public double getInitV() {return initV;}
+	public double getStep() {return step;}
+	public double getTolerance() {return tolerance;}
+	public long getMaxIterations() {return maxIterations;}
+	public double getMaxTime() {return maxTime;}
+	
+	/*
+	 * Modified copies
+	 */
+	public TraceConfig withFile(File file) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withTrack(int track) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withIntegration(Integration integration) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withInterpolation(Interpolation interpolation) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withInertia(Inertia inertia) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withMass(double mass) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withMinX(double minX) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withMaxX(double maxX) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withInitV(double initV) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withStep(double step) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withTolerance(double tolerance) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withMaxIterations(long maxIterations) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+	public TraceConfig withMaxTime(double maxTime) {return new TraceConfig(file, track, integration, interpolation, inertia, mass, minX, maxX, initV, step, tolerance, maxIterations, maxTime);}
+}
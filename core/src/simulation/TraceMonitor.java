@@ -0,0 +1,88 @@
+package simulation;
+
+import java.util.concurrent.CancellationException;
+
+import enums.Outcome;
+import functions.AbstractDifferentiable;
+
+/**
+ * Watches the integrator state of a running trace, deciding when the trace has to end before reaching the end of the track.
+ * Guards against traces that would otherwise never terminate: the object stopping or rolling back,
+ * invalid values from a bad fit, unbounded energy growth, and exhausted iteration or time budgets.
+ */
+public class TraceMonitor {
+	// Budgets
+	private final long maxIterations;
+	private final double maxTime;
+	// Energy check
+	private final AbstractDifferentiable func;
+	private final double mass;
+	private final double inertia;
+	private final double initEnergy;
+	// Constants
+	public static final int ENERGY_CHECK_INTERVAL = 1024;
+	public static final int INTERRUPT_CHECK_INTERVAL = 1024;
+	public static final double ENERGY_LIMIT = 0.5;
+	
+	
+	// Constructor
+	/**
+	 * Creates a monitor for a trace starting at given state [x, v].
+	 */
+	public TraceMonitor(AbstractDifferentiable func, double mass, double inertia, double[] initState,
+						long maxIterations, double maxTime) {
+		this.func = func.cursor();
+		this.mass = mass;
+		this.inertia = inertia;
+		this.maxIterations = maxIterations;
+		this.maxTime = maxTime;
+		this.initEnergy = Physics.getTotalEnergy(this.func, mass, inertia, initState[0], initState[1]);
+	}
+	
+	
+	// Checks
+	/**
+	 * Checks given state [x, v], reached after given number of iterations at time t.
+	 * Returns the outcome ending the trace, or {@code null} if the trace may continue.
+	 * The end of the track is not checked, and is left to the caller.
+	 * Throws a CancellationException if the computing thread has been interrupted.
+	 */
+	public Outcome check(long iteration, double t, double[] state, double max) {
+		// Periodically check for cancellation
+		if (iteration % INTERRUPT_CHECK_INTERVAL == 0  &&  Thread.currentThread().isInterrupted())
+			throw new CancellationException("Trace cancelled.");
+		
+		double x = state[0];
+		double v = state[1];
+		
+		// Invalid state, typically caused by a bad fit
+		if (!Double.isFinite(x)  ||  !Double.isFinite(v))
+			return Outcome.DIVERGED;
+		
+		// End of track reached
+		if (x >= max)
+			return null;
+		
+		// Object has stopped and started rolling back
+		if (v < 0)
+			return Outcome.REVERSED;
+		
+		// Budgets
+		if (iteration >= maxIterations)
+			return Outcome.ITERATION_LIMIT;
+		if (t >= maxTime)
+			return Outcome.TIME_LIMIT;
+		
+		// Energy, checked periodically. Deviation is measured relative to the energies involved, as potential energy has an arbitrary zero level
+		if (iteration % ENERGY_CHECK_INTERVAL == 0) {
+			double kinetic = Physics.getKineticEnergy(mass, inertia, v);
+			double potential = Physics.getPotentialEnergy(func, mass, x);
+			double scale = Math.abs(initEnergy) + kinetic + Math.abs(potential);
+			
+			if (!(Math.abs(kinetic + potential - initEnergy) <= ENERGY_LIMIT * scale))
+				return Outcome.ENERGY_DIVERGED;
+		}
+		
+		return null;
+	}
+}
@@ -0,0 +1,125 @@
+package simulation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Supplier;
+
+/**
+ * Column store for trace data, keyed by channel name (see {@link Simulation#CHANNELS}).
+ * Every channel is held as a primitive array, avoiding one boxed object per value.
+ * Derived channels may be stored as functions of the sample index, evaluated and cached the first time they are requested.
+ * Columns are treated as immutable once stored, allowing them to be shared between threads and views.
+ */
+public class TraceResult {
+	private final Map<String, Column> columns;
+
+
+	// Constructor
+	/**
+	 * Creates an empty column store.
+	 */
+	public TraceResult() {
+		columns = new LinkedHashMap<>();
+	}
+
+
+	// Columns
+	/**
+	 * Stores given column under given channel name, replacing any previous column.
+	 */
+	public void putColumn(String key, double[] column) {
+		columns.put(key, new Column(column));
+	}
+
+	/**
+	 * Stores a lazily evaluated column of given size under given channel name, replacing any previous column.
+	 * The function maps a sample index to its value, and is evaluated once for every index on first request.
+	 */
+	public void putColumn(String key, int size, IntToDoubleFunction function) {
+		columns.put(key, new Column(size, function));
+	}
+
+	/**
+	 * Copies all columns from given store into this store. Lazily evaluated columns are shared, not evaluated.
+	 */
+	public void putAll(TraceResult result) {
+		columns.putAll(result.columns);
+	}
+
+	/**
+	 * Returns the column stored under given channel name, or {@code null} if there is no such column.
+	 * Lazily evaluated columns are computed on the first call. The returned array must not be modified.
+	 */
+	public double[] getColumn(String key) {
+		Column column = columns.get(key);
+		return (column == null) ? null : column.getValues();
+	}
+
+	/**
+	 * Returns a supplier of the column stored under given channel name, or {@code null} if there is no such column.
+	 * The column is not evaluated until requested, and the supplier may be used from any thread.
+	 */
+	public Supplier<double[]> getLazyColumn(String key) {
+		Column column = columns.get(key);
+		return (column == null) ? null : column::getValues;
+	}
+
+	/**
+	 * Returns the size of the column stored under given channel name, without evaluating it.
+	 * Returns 0 if there is no such column.
+	 */
+	public int getSize(String key) {
+		Column column = columns.get(key);
+		return (column == null) ? 0 : column.size;
+	}
+
+	/**
+	 * Returns {@code true} if a column is stored under given channel name, else {@code false}.
+	 */
+	public boolean hasColumn(String key) {
+		return columns.containsKey(key);
+	}
+
+	/**
+	 * Returns the channel names of all stored columns.
+	 */
+	public Set<String> getKeys() {
+		return Collections.unmodifiableSet(columns.keySet());
+	}
+
+
+	/**
+	 * Single column, either stored directly or evaluated on first request.
+	 */
+	private static class Column {
+		private final int size;
+		private IntToDoubleFunction function;
+		private double[] values;
+
+		private Column(double[] values) {
+			this.size = values.length;
+			this.values = values;
+		}
+
+		private Column(int size, IntToDoubleFunction function) {
+			this.size = size;
+			this.function = function;
+		}
+
+		private synchronized double[] getValues() {
+			// Evaluate column on first request, then release function
+			if (values == null) {
+				double[] output = new double[size];
+				for (int i = 0; i < size; i++)
+					output[i] = function.applyAsDouble(i);
+				values = output;
+				function = null;
+			}
+
+			return values;
+		}
+	}
+}
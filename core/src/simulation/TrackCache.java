@@ -0,0 +1,154 @@
+package simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import enums.Interpolation;
+import functions.AbstractDifferentiable;
+
+/**
+ * Least recently used cache of fitted tracks, keyed by file, track within the file and interpolation type.
+ * Files are identified by path, size and modification time, so a file changed on disk is fitted again.
+ * The node count and distribution are fixed for each interpolation type, and are thereby part of the key.
+ * A track requested by several threads at once is only fitted once, failed fits are not cached.
+ */
+class TrackCache {
+	// Data
+	private final int capacity;
+	private final Map<Key, FutureTask<AbstractDifferentiable>> fits;
+	
+	
+	// Constructor
+	/**
+	 * Creates a cache holding at most given number of tracks.
+	 */
+	TrackCache(int capacity) {
+		this.capacity = capacity;
+		this.fits = new LinkedHashMap<Key, FutureTask<AbstractDifferentiable>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, FutureTask<AbstractDifferentiable>> eldest) {
+				return size() > TrackCache.this.capacity;
+			}
+		};
+	}
+	
+	
+	// Cache
+	/**
+	 * Returns given track of given file and interpolation type, fitting it using given function if not cached.
+	 * Throws a CancellationException if the thread is interrupted while waiting for another thread to fit the track.
+	 */
+	AbstractDifferentiable get(File file, int track, Interpolation interpolation, Supplier<AbstractDifferentiable> fit) {
+		Key key = new Key(file, track, interpolation);
+		FutureTask<AbstractDifferentiable> task;
+		boolean owner = false;
+		
+		synchronized (fits) {
+			task = fits.get(key);
+			if (task == null) {
+				// Drop fits of previous versions of the file
+				Iterator<Key> keys = fits.keySet().iterator();
+				while (keys.hasNext())
+					if (keys.next().isPreviousVersionOf(key))
+						keys.remove();
+				
+				task = new FutureTask<>(fit::get);
+				fits.put(key, task);
+				owner = true;
+			}
+		}
+		
+		// Fit track on the calling thread, or wait for the thread already fitting it
+		if (owner)
+			task.run();
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while fitting track.");
+		} catch (ExecutionException e) {
+			synchronized (fits) {
+				fits.remove(key, task);
+			}
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+	
+	/**
+	 * Removes all cached tracks.
+	 */
+	void clear() {
+		synchronized (fits) {
+			fits.clear();
+		}
+	}
+	
+	/**
+	 * Returns the number of cached tracks.
+	 */
+	int size() {
+		synchronized (fits) {
+			return fits.size();
+		}
+	}
+	
+	
+	/**
+	 * Identity of a file version, track and interpolation type.
+	 */
+	private static class Key {
+		private final String path;
+		private final long modified;
+		private final long length;
+		private final int track;
+		private final Interpolation interpolation;
+		
+		private Key(File file, int track, Interpolation interpolation) {
+			String path;
+			try {
+				path = file.getCanonicalPath();
+			} catch (IOException e) {
+				path = file.getAbsolutePath();
+			}
+			this.path = path;
+			this.modified = file.lastModified();
+			this.length = file.length();
+			this.track = track;
+			this.interpolation = interpolation;
+		}
+		
+		/**
+		 * Returns true if this key describes the same file, track and interpolation as given key, in another version of the file.
+		 */
+		private boolean isPreviousVersionOf(Key key) {
+			return path.equals(key.path)  &&  track == key.track  &&  interpolation == key.interpolation  &&  !equals(key);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+			
+			Key key = (Key) obj;
+			return path.equals(key.path)  &&  modified == key.modified  &&  length == key.length  &&  track == key.track  &&  interpolation == key.interpolation;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(path, modified, length, track, interpolation);
+		}
+	}
+}
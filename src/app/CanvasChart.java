@@ -0,0 +1,195 @@
+package app;
+
+import java.util.Arrays;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.shape.StrokeLineJoin;
+
+/**
+ * Chart drawing the sampled channels of graphs as polylines on a single canvas, straight from their primitive arrays.
+ * Unlike LineChart, no data objects or path elements are created per point, so large series remain interactive.
+ * Axes, plot background and style classes are those of XYChart, the chart holds no series of its own.
+ */
+public class CanvasChart extends XYChart<Number, Number> {
+	// Data
+	private final ObservableList<Graph> graphs = FXCollections.observableArrayList();
+	private final BooleanProperty createSymbols = new SimpleBooleanProperty(true);
+	private final Canvas canvas = new Canvas();
+	private final InvalidationListener redrawListener = observable -> redraw();
+	private boolean redrawPending;
+	// Reused screen coordinates of the graph being drawn
+	private double[] screenX = new double[0];
+	private double[] screenY = new double[0];
+	
+	
+	// Constructor
+	/**
+	 * Creates a chart with given axes and no graphs.
+	 */
+	public CanvasChart(NumberAxis xAxis, NumberAxis yAxis) {
+		super(xAxis, yAxis);
+		setData(FXCollections.observableArrayList());
+		
+		// Canvas covering the plot area
+		canvas.setManaged(false);
+		getPlotChildren().add(canvas);
+		
+		// Redraw whenever graphs are added, removed, resampled or restyled
+		graphs.addListener((ListChangeListener<Graph>) change -> {
+			while (change.next()) {
+				change.getRemoved().forEach(graph -> graph.getRevisionProperty().removeListener(redrawListener));
+				change.getAddedSubList().forEach(graph -> graph.getRevisionProperty().addListener(redrawListener));
+			}
+			redraw();
+		});
+		createSymbols.addListener(redrawListener);
+	}
+	
+	
+	// Drawing
+	/**
+	 * Schedules an update of auto ranging axes to the plotted samples, and draws the chart at the next layout pass.
+	 * Repeated calls before the update runs, such as several graphs being resampled at once, result in a single redraw.
+	 */
+	public void redraw() {
+		// Break if a redraw is already scheduled
+		if (redrawPending) return;
+		redrawPending = true;
+		
+		Platform.runLater(() -> {
+			redrawPending = false;
+			updateAxisRange();
+			requestChartLayout();
+		});
+	}
+	
+	@Override
+	protected void updateAxisRange() {
+		NumberAxis xAxis = (NumberAxis) getXAxis();
+		NumberAxis yAxis = (NumberAxis) getYAxis();
+		
+		// Bounds of all visible samples
+		double[] xRange = new double[] {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+		double[] yRange = new double[] {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+		for (Graph graph : graphs) {
+			if (!graph.getVisible()) continue;
+			extend(xRange, graph.getPlotX());
+			extend(yRange, graph.getPlotY());
+		}
+		
+		// Break if there are no samples, keeping the previous range
+		if (xRange[0] > xRange[1]  ||  yRange[0] > yRange[1]) return;
+		
+		if (xAxis.isAutoRanging())
+			xAxis.invalidateRange(Arrays.asList(xRange[0], xRange[1]));
+		if (yAxis.isAutoRanging())
+			yAxis.invalidateRange(Arrays.asList(yRange[0], yRange[1]));
+	}
+	
+	@Override
+	protected void layoutPlotChildren() {
+		NumberAxis xAxis = (NumberAxis) getXAxis();
+		NumberAxis yAxis = (NumberAxis) getYAxis();
+		
+		// Resize canvas to the plot area, which also clears it
+		canvas.setWidth(xAxis.getWidth());
+		canvas.setHeight(yAxis.getHeight());
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+		gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		
+		for (Graph graph : graphs)
+			if (graph.getVisible())
+				drawGraph(gc, graph, xAxis, yAxis);
+	}
+	
+	/**
+	 * Draws the sampled channels of given graph as a polyline, with points if symbols are created.
+	 */
+	private void drawGraph(GraphicsContext gc, Graph graph, NumberAxis xAxis, NumberAxis yAxis) {
+		double[] x = graph.getPlotX();
+		double[] y = graph.getPlotY();
+		int n = Math.min(x.length, y.length);
+		if (n == 0) return;
+		
+		// Convert to screen coordinates
+		if (screenX.length < n) {
+			screenX = new double[n];
+			screenY = new double[n];
+		}
+		for (int i = 0; i < n; i++) {
+			screenX[i] = xAxis.getDisplayPosition(x[i]);
+			screenY[i] = yAxis.getDisplayPosition(y[i]);
+		}
+		
+		// Dim graph while the data of its' trace is loading
+		gc.setGlobalAlpha(graph.getTrace() != null  &&  graph.getTrace().isLoading() ? 0.4 : 1);
+		
+		// Line styling, a style without gaps is drawn as a full line
+		Double[] stroke = graph.getStyle().getStroke();
+		gc.setStroke(graph.getColor());
+		gc.setLineWidth(graph.getWidth());
+		gc.setLineCap(StrokeLineCap.SQUARE);
+		gc.setLineJoin(StrokeLineJoin.ROUND);
+		if (stroke[1] == 0)
+			gc.setLineDashes();
+		else
+			gc.setLineDashes(stroke[0], stroke[1]);
+		gc.strokePolyline(screenX, screenY, n);
+		
+		// Points, colored rings around a white center
+		if (isCreateSymbols()) {
+			double outer = 3 + graph.getWidth();
+			double inner = 3;
+			gc.setFill(graph.getColor());
+			for (int i = 0; i < n; i++)
+				gc.fillOval(screenX[i] - outer, screenY[i] - outer, 2 * outer, 2 * outer);
+			gc.setFill(Color.WHITE);
+			for (int i = 0; i < n; i++)
+				gc.fillOval(screenX[i] - inner, screenY[i] - inner, 2 * inner, 2 * inner);
+		}
+		gc.setGlobalAlpha(1);
+	}
+	
+	/**
+	 * Extends given range [min, max] by the finite values of given array.
+	 */
+	private static void extend(double[] range, double[] values) {
+		for (double value : values) {
+			if (Double.isNaN(value)  ||  Double.isInfinite(value)) continue;
+			if (value < range[0]) range[0] = value;
+			if (value > range[1]) range[1] = value;
+		}
+	}
+	
+	
+	// Series are not used, graphs are drawn directly
+	@Override
+	protected void dataItemAdded(Series<Number, Number> series, int itemIndex, Data<Number, Number> item) {}
+	@Override
+	protected void dataItemRemoved(Data<Number, Number> item, Series<Number, Number> series) {}
+	@Override
+	protected void dataItemChanged(Data<Number, Number> item) {}
+	@Override
+	protected void seriesAdded(Series<Number, Number> series, int seriesIndex) {}
+	@Override
+	protected void seriesRemoved(Series<Number, Number> series) {}
+	
+	
+	// Getters / setters
+	public ObservableList<Graph> getGraphs() {return graphs;}
+	public boolean isCreateSymbols() {return createSymbols.get();}
+	public void setCreateSymbols(boolean createSymbols) {this.createSymbols.set(createSymbols);}
+	public BooleanProperty createSymbolsProperty() {return createSymbols;}
+}
@@ -0,0 +1,48 @@
+package app;
+
+import javafx.collections.ObservableListBase;
+import simulation.TraceResult;
+
+/**
+ * Read-only ObservableList view of a primitive column, used to expose trace data to GUI components.
+ * Values are boxed on access only, the underlying array is never copied.
+ * Lazily evaluated columns are not computed until the first element is requested.
+ */
+public class ColumnView extends ObservableListBase<Double> {
+	private final TraceResult result;
+	private final String key;
+	private final int size;
+	private double[] column;
+
+
+	// Constructor
+	/**
+	 * Creates a view of the column stored under given channel name.
+	 */
+	public ColumnView(TraceResult result, String key) {
+		this.result = result;
+		this.key = key;
+		this.size = result.getSize(key);
+	}
+
+
+	// List
+	@Override
+	public Double get(int index) {
+		return getColumn()[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the underlying primitive column, evaluating it if necessary.
+	 */
+	public double[] getColumn() {
+		if (column == null)
+			column = result.getColumn(key);
+		return column;
+	}
+}
@@ -0,0 +1,52 @@
+package app;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import parsers.DataRegistry;
+import parsers.Dataset;
+
+/**
+ * Application wide executor for parsing tracking files off the JavaFX Application Thread, parsing at most one file per available core.
+ * Parsed files are shared through the {@link DataRegistry}, so a file requested by several traces is only parsed once.
+ */
+public class FileLoader {
+	// Pool
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+	private static final AtomicInteger threadCount = new AtomicInteger();
+	private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			THREADS, THREADS, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+			runnable -> {
+				// Daemon threads, allowing the application to exit with files loading
+				Thread thread = new Thread(runnable, "File loader " + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+	
+	
+	// Constructor
+	private FileLoader() {}
+	
+	
+	// Loading
+	/**
+	 * Loads given track of given file in the background. While the file is parsed, given consumer (may be null)
+	 * receives datasets of the rows parsed so far, on the loading thread.
+	 */
+	public static CompletableFuture<Dataset> load(File file, int track, Consumer<Dataset> partial) {
+		return CompletableFuture.supplyAsync(() -> DataRegistry.get(file, track, partial), executor);
+	}
+	
+	/**
+	 * Cancels given loading task if it has not yet started. Started tasks are completed, and their result shared through the registry.
+	 * Returns {@code true} if the task was cancelled, else {@code false}.
+	 */
+	public static boolean cancel(CompletableFuture<?> future) {
+		return future != null  &&  future.cancel(false);
+	}
+}
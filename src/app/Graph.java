@@ -1,12 +1,19 @@
 package app;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+import enums.Sampling;
 import enums.Style;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -14,16 +21,11 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
-import javafx.collections.ObservableList;
-import javafx.scene.chart.XYChart;
-import javafx.scene.chart.XYChart.Data;
-import javafx.scene.chart.XYChart.Series;
 import javafx.scene.paint.Color;
 
 public class Graph {
 	// Graph data properties
 	private StringProperty name;
-	private XYChart.Series<Number, Number> series;
 	private StringProperty xData;
 	private StringProperty yData;
 	private ObjectProperty<Trace> trace;
@@ -34,11 +36,29 @@ public class Graph {
 	private ObjectProperty<Style> style;
 	private DoubleProperty width;
 	private DoubleProperty detail;
+	private ObjectProperty<Sampling> sampling;
 	private BooleanProperty visible;
 	private BooleanProperty points;
-	List<Data<Number, Number>> dataList; 
+	// Visible x-range and width in pixels of the chart, and latest sampling request
+	private double viewLower = Double.NEGATIVE_INFINITY;
+	private double viewUpper = Double.POSITIVE_INFINITY;
+	private int viewColumns;
+	private long sampleRequest;
+	// Whether an update is already scheduled for the current burst of changes
+	private boolean updatePending;
+	// Plotted samples, and revision counted up whenever they or the styling change
+	private double[] plotX = new double[0];
+	private double[] plotY = new double[0];
+	private ReadOnlyLongWrapper revision;
 	// Initial color selection
 	public static int initColorID;
+	// Shared pool sampling series off the FX Application Thread
+	private static final AtomicInteger samplerCount = new AtomicInteger();
+	private static final ExecutorService SAMPLER = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+		Thread thread = new Thread(runnable, "Graph sampler " + samplerCount.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
 	public static Color[] initColors = new Color[] {
 		Color.valueOf("#450000"),
 		Color.valueOf("#0060AA"),
@@ -56,10 +76,6 @@ public class Graph {
 		// Initialize graph properties
 		initializeProperties();
 		
-		// Initialize series
-		series = new XYChart.Series<>();
-		series.nameProperty().bindBidirectional(name);
-
 		// Set default values
 		setDefault(initTrace);
 		
@@ -89,15 +105,17 @@ public class Graph {
 		width = new SimpleDoubleProperty();
 		style = new SimpleObjectProperty<>();
 		detail = new SimpleDoubleProperty();
+		sampling = new SimpleObjectProperty<>();
 		visible = new SimpleBooleanProperty();
 		points = new SimpleBooleanProperty();
+		revision = new ReadOnlyLongWrapper();
 	}
 	
 	/**
 	 * Apply change listeners to dynamic data.
 	 */
 	private void initializeChangeListeners() {
-		// Create changeListeners
+		// Create changeListeners, each burst of changes is processed by a single update
 		ChangeListener<Object> dataChangeListener = new ChangeListener<>() {
 			@Override
 			public void changed(ObservableValue<?> arg0, Object arg1, Object arg2) {
@@ -124,6 +142,7 @@ public class Graph {
 		style.addListener(dataChangeListener); 
 		width.addListener(dataChangeListener);
 		detail.addListener(dataChangeListener);
+		sampling.addListener(dataChangeListener);
 		visible.addListener(dataChangeListener);
 	}
 
@@ -144,6 +163,7 @@ public class Graph {
 		setStyle(Style.FULL_LINE);
 		setWidth(50d);
 		setDetail(100d);
+		setSampling(Sampling.LARGEST_TRIANGLE);
 		setVisible(true);
 	}
 	
@@ -154,7 +174,6 @@ public class Graph {
 	 */
 	private boolean isValidGraph() {
 		if (getName() == null) return false;
-		if (getSeries() == null) return false;
 		if (getXData() == null) return false;
 		if (getYData() == null) return false;
 		if (getTrace() == null) return false;
@@ -165,6 +184,7 @@ public class Graph {
 		if (getStyle() == null) return false;
 		if (getWidth() == null) return false;
 		if (getDetail() == null) return false;
+		if (getSampling() == null) return false;
 		if (getVisible() == null) return false;
 		if (getPoints() == null) return false;
 		
@@ -174,72 +194,115 @@ public class Graph {
 	
 	// Update
 	/**
-	 * Updates data set and graph styling.
+	 * Schedules an update of data set and graph styling.
+	 * Repeated calls before the update runs, such as several properties changing at once, result in a single update.
 	 */
 	public void updateGraph() {
-		// Break if graph is invalid
-		if (!isValidGraph()) return;
+		// Break if an update is already scheduled
+		if (updatePending) return;
+		updatePending = true;
 		
-		// Update graph
-		updateSeries();
-		updateStyle();
+		Platform.runLater(() -> {
+			updatePending = false;
+			
+			// Break if graph is invalid
+			if (!isValidGraph()) return;
+			
+			// Update graph
+			updateSeries();
+			updateStyle();
+		});
 	}
 	
 	/**
-	 * Updates data set.
+	 * Updates data set, resampling the visible part of the channels in the background.
+	 * Results of previous updates still being sampled are discarded.
 	 */
 	private void updateSeries() {
-		// Empty list used to build data set
-		dataList = new ArrayList<>();
-		
-		// Raw data sets
-		ObservableList<Double> rawXData = getTrace().getDataMap().get(getXData());
-		ObservableList<Double> rawYData = getTrace().getDataMap().get(getYData());
+		// Raw data sets, derived channels are evaluated by the sampler rather than the FX Application Thread
+		Supplier<double[]> rawXData = getTrace().getLazyColumn(getXData());
+		Supplier<double[]> rawYData = getTrace().getLazyColumn(getYData());
 		
 		// Break if any data sets are missing
 		if (rawXData == null  ||  rawYData == null) return;
-		if (rawXData.size() == 0  ||  rawYData.size() == 0) return;
 		
-		// Set lower boundary based on data set sizes
-		double listSize = Math.min(rawXData.size(), rawYData.size());
-		double actualSize = Math.min(listSize, getDetail());
+		// Visible x-window, within both the graph range and the axis range
+		double lower = Math.max(getMinX(), viewLower);
+		double upper = Math.min(getMaxX(), viewUpper);
 		
-		// Reduced indices
-		int[] indices = parsers.Data.equidistantIndices(rawXData.stream().mapToDouble(doub -> doub.doubleValue()).toArray(), (int) actualSize);
-		// Reduce lists
-		List<Double> reducedXData = parsers.Data.reduceList(rawXData, indices);
-		List<Double> reducedYData = parsers.Data.reduceList(rawYData, indices);
+		// Number of points, roughly one per pixel column of the axis if known, limited by the detail
+		Sampling sampling = getSampling();
+		double size = getDetail();
+		if (viewColumns > 0)
+			size = Math.min(size, (sampling == Sampling.MIN_MAX) ? 2 * viewColumns : viewColumns);
+		int n = Math.max((int) size, 2);
 		
-		// Construct output list
-		for (int i = 0; i < reducedXData.size(); i++)
-			dataList.add(new Data<Number, Number>(reducedXData.get(i), reducedYData.get(i)));
-		
-		// Update series
-		series.getData().setAll(dataList);
-		System.out.println("Data series size: " + series.getData().size());
+		// Sample off the FX Application Thread, publishing only the latest request
+		long request = ++sampleRequest;
+		CompletableFuture.supplyAsync(() -> sample(rawXData.get(), rawYData.get(), lower, upper, n, sampling), SAMPLER)
+			.whenComplete((samples, error) -> {
+				if (error != null) {
+					error.printStackTrace();
+					return;
+				}
+				Platform.runLater(() -> {
+					if (request != sampleRequest) return;
+					
+					// Update plotted samples
+					plotX = samples[0];
+					plotY = samples[1];
+					updateStyle();
+				});
+			});
 	}
 	
 	/**
-	 * Updates graph styling.
+	 * Returns at most n points {x, y} of given channels within the x-window [lower, upper], selected by given sampling.
 	 */
-	private void updateStyle() {
-		// Break if graph is not plotted
-		if (getSeries().getNode() == null) return;
+	private static double[][] sample(double[] rawXData, double[] rawYData, double lower, double upper, int n, Sampling sampling) {
+		// Samples within the window
+		int[] window = parsers.Data.windowIndices(rawXData, Math.min(rawXData.length, rawYData.length), lower, upper);
+		if (window.length == 0) return new double[][] {new double[0], new double[0]};
+		double[] xWindow = parsers.Data.reduceArray(rawXData, window);
+		double[] yWindow = parsers.Data.reduceArray(rawYData, window);
 		
-		// Set line styling
-		getSeries().getNode().setStyle(String.format("-fx-stroke: #%s;"
-													+ "-fx-stroke-width: %s;"
-													+ "-fx-stroke-dash-array: %s;"
-													+ "-fx-stroke-line-cap: %s;", 
-													getHexColor(), getWidth(), getStyle(), "SQUARE"));
-		
-		// If points are plotted, set point styling
-		if (getPoints()) {
-			String nodeStyle = String.format("-fx-background-color: #%s, #FFFFFF;"
-											+ "-fx-background-radius: 100, 100;"
-											+ "-fx-background-insets: %s, 2;", getHexColor(), 2d - getWidth());
-			getSeries().getData().forEach(data -> data.getNode().setStyle(nodeStyle));
+		// Reduced indices, keeping peaks unless equidistant samples are selected
+		int actualSize = Math.min(xWindow.length, n);
+		int[] indices;
+		switch (sampling) {
+		case LARGEST_TRIANGLE:
+			indices = parsers.Data.largestTriangleIndices(xWindow, yWindow, actualSize);
+			break;
+		case MIN_MAX:
+			indices = parsers.Data.minMaxIndices(yWindow, yWindow.length, actualSize);
+			break;
+		default:
+			indices = parsers.Data.equidistantIndices(xWindow, actualSize);
+			break;
 		}
+		// Reduce arrays
+		return new double[][] {parsers.Data.reduceArray(xWindow, indices), parsers.Data.reduceArray(yWindow, indices)};
+	}
+	
+	/**
+	 * Sets the visible x-range of the chart and the width of the axis in pixels, resampling the series if changed.
+	 * An infinite range shows all samples. A width of zero or less limits the number of points by the detail only.
+	 */
+	public void setViewport(double lower, double upper, int columns) {
+		if (lower == viewLower  &&  upper == viewUpper  &&  columns == viewColumns) return;
+		
+		viewLower = lower;
+		viewUpper = upper;
+		viewColumns = columns;
+		updateGraph();
+	}
+	
+	/**
+	 * Updates graph styling, notifying the chart to redraw the graph.
+	 * Styling is read by the chart when drawing.
+	 */
+	private void updateStyle() {
+		revision.set(revision.get() + 1);
 	}
 	
 	
@@ -270,13 +333,14 @@ public class Graph {
 	///////////////////////////////
 	
 	// Data getters
-	public Series<Number, Number> getSeries() {return series;}
-	public String getName() {return series.nameProperty().get();}
+	public String getName() {return name.get();}
 	public String getXData() {return xData.get();}
 	public String getYData() {return yData.get();}
 	public Trace getTrace() {return trace.get();}
 	public Double getMinX() {return minX.get();}
 	public Double getMaxX() {return maxX.get();}
+	public double[] getPlotX() {return plotX;}
+	public double[] getPlotY() {return plotY;}
 
 	// Layout getters
 	public Color getColor() {return color.get();}
@@ -284,6 +348,7 @@ public class Graph {
 	public Double getWidth() {return Math.pow(width.get(), 1.5) / 120d;}
 	public Style getStyle() {return style.get();}
 	public Double getDetail() {return 10d / ((0.5d - detail.get())/100d + 1d) - 7;}
+	public Sampling getSampling() {return sampling.get();}
 	public Boolean getVisible() {return visible.get();}
 	public Boolean getPoints() {return points.get();}
 	
@@ -301,6 +366,7 @@ public class Graph {
 	public void setWidth(Double width) {this.width.set(width);}
 	public void setStyle(Style style) {this.style.set(style);}
 	public void setDetail(Double detail) {this.detail.set(detail);}
+	public void setSampling(Sampling sampling) {this.sampling.set(sampling);}
 	public void setVisible(Boolean visible) {this.visible.set(visible);}
 	public void setPoints(Boolean points) {this.points.set(points);}
 
@@ -318,7 +384,9 @@ public class Graph {
 	public DoubleProperty getWidthProperty() {return width;}
 	public ObjectProperty<Style> getStyleProperty() {return style;}
 	public DoubleProperty getDetailProperty() {return detail;}
+	public ObjectProperty<Sampling> getSamplingProperty() {return sampling;}
 	public BooleanProperty getVisibleProperty() {return visible;}
 	public BooleanProperty getPointsProperty() {return points;}
+	public ReadOnlyLongProperty getRevisionProperty() {return revision.getReadOnlyProperty();}
 	
 }
\ No newline at end of file
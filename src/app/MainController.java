@@ -6,7 +6,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import javax.imageio.ImageIO;
 
@@ -22,7 +21,11 @@ import com.jfoenix.controls.JFXToggleButton;
 import enums.Inertia;
 import enums.Integration;
 import enums.Interpolation;
+import enums.Sampling;
 import enums.Style;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
@@ -36,7 +39,6 @@ import javafx.geometry.Bounds;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Node;
 import javafx.scene.SnapshotParameters;
-import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.control.Label;
 import javafx.scene.control.Labeled;
@@ -73,7 +75,7 @@ public class MainController {
 
     // CHART
     @FXML private StackPane chartPane;
-    private LineChart<Number, Number> lineChart;
+    private CanvasChart chart;
     private NumberAxis xAxis;
     private NumberAxis yAxis;
     // Chart properties
@@ -100,6 +102,7 @@ public class MainController {
     // Trace properties
     @FXML private JFXTextField traceName;
     @FXML private JFXComboBox<File> traceFile;
+    @FXML private JFXComboBox<Integer> traceTrack;
     @FXML private JFXComboBox<Integration> traceIntegration;
     @FXML private JFXComboBox<Interpolation> traceInterpolation;
     @FXML private JFXComboBox<Inertia> traceInertia;
@@ -108,6 +111,8 @@ public class MainController {
     @FXML private JFXTextField traceMaxX;
     @FXML private JFXTextField traceInitV;
     @FXML private JFXTextField traceStep;
+    @FXML private JFXTextField traceTolerance;
+    @FXML private Label traceStepLabel;
     // Trace details
     @FXML private Label funcTypeLabel;
     @FXML private Label integrationTypeLabel;
@@ -116,6 +121,7 @@ public class MainController {
     @FXML private Label totalTimeLabel;
     @FXML private Label computationTimeLabel;
     @FXML private Label energyDifferenceLabel;
+    @FXML private Label outcomeLabel;
 
     // GRAPHS
     @FXML private JFXListView<Graph> graphListView;
@@ -129,6 +135,7 @@ public class MainController {
     // Graph layout
     @FXML private JFXColorPicker graphColor;
     @FXML private JFXSlider graphDetail;
+    @FXML private JFXComboBox<Sampling> graphSampling;
     @FXML private JFXComboBox<Style> graphStyle;
     @FXML private JFXSlider graphWidth;
     @FXML private JFXToggleButton graphVisible; 
@@ -238,12 +245,19 @@ public class MainController {
         graphXData.setItems(dataList);
         graphYData.setItems(dataList);
         graphStyle.setItems(FXCollections.observableList(Style.getElements()));
+        graphSampling.setItems(FXCollections.observableList(Sampling.getElements()));
     }
     
 	/**
 	 * Initializes trace view and adds default trace to listView.
 	 */
 	private void initializeTraceView() {
+		// Adaptive integration is driven by a tolerance instead of a step size
+		BooleanBinding adaptive = traceIntegration.valueProperty().isEqualTo(Integration.DORMAND_PRINCE_METHOD);
+		traceStep.visibleProperty().bind(adaptive.not());
+		traceTolerance.visibleProperty().bind(adaptive);
+		traceStepLabel.textProperty().bind(Bindings.when(adaptive).then("Tolerance:").otherwise("Step size:"));
+		
 		// Set default trace
     	traceList.add(new Trace());
     	traceListView.getSelectionModel().selectFirst();
@@ -277,8 +291,8 @@ public class MainController {
 		graphStyle.setButtonCell(new StyleCell(true));
 		
 		// Add name listener
-//		lineChart.dataProperty().addListener(chartSeriersChangeListener);
-		lineChart.createSymbolsProperty().addListener(chartPointsChangeListener);
+//		chart.dataProperty().addListener(chartSeriersChangeListener);
+		chart.createSymbolsProperty().addListener(chartPointsChangeListener);
 		graphName.textProperty().addListener(graphNameChangeListener);
 		
 		// Updaters
@@ -292,13 +306,13 @@ public class MainController {
 		// Initialize chart
 		xAxis = new NumberAxis();
 		yAxis = new NumberAxis();
-		lineChart = new LineChart<>(xAxis, yAxis);
+		chart = new CanvasChart(xAxis, yAxis);
 
 		// Bind chart properties
-//		chartTitle.textProperty().bindBidirectional(lineChart.titleProperty());
-		chartWidth.textProperty().bindBidirectional(lineChart.prefWidthProperty(), customStringDoubleConverter);
-		chartHeight.textProperty().bindBidirectional(lineChart.prefHeightProperty(), customStringDoubleConverter);
-		chartPoints.selectedProperty().bindBidirectional(lineChart.createSymbolsProperty());
+//		chartTitle.textProperty().bindBidirectional(chart.titleProperty());
+		chartWidth.textProperty().bindBidirectional(chart.prefWidthProperty(), customStringDoubleConverter);
+		chartHeight.textProperty().bindBidirectional(chart.prefHeightProperty(), customStringDoubleConverter);
+		chartPoints.selectedProperty().bindBidirectional(chart.createSymbolsProperty());
 		
 		// Bind x-axis properties
 		xAxisName.textProperty().bindBidirectional(xAxis.labelProperty());
@@ -325,23 +339,30 @@ public class MainController {
 		yAxis.setLabel("yAxis");
 //		xAxis.setForceZeroInRange(false);
 //		yAxis.setForceZeroInRange(false);
-		lineChart.setTitle(null);
-		lineChart.setCreateSymbols(false);
-		lineChart.setLegendVisible(false);
-		lineChart.setPrefSize(350, 300);
-		lineChart.setAnimated(false);
-		lineChart.minWidthProperty().bind(lineChart.prefWidthProperty());
-		lineChart.maxWidthProperty().bind(lineChart.prefWidthProperty());
-		lineChart.minHeightProperty().bind(lineChart.prefHeightProperty());
-		lineChart.maxHeightProperty().bind(lineChart.prefHeightProperty());
+		chart.setTitle(null);
+		chart.setCreateSymbols(false);
+		chart.setLegendVisible(false);
+		chart.setPrefSize(350, 300);
+		chart.setAnimated(false);
+		chart.minWidthProperty().bind(chart.prefWidthProperty());
+		chart.maxWidthProperty().bind(chart.prefWidthProperty());
+		chart.minHeightProperty().bind(chart.prefHeightProperty());
+		chart.maxHeightProperty().bind(chart.prefHeightProperty());
 		
 		xAxis.setAutoRanging(true);
 		xAxis.setAnimated(false);
 		yAxis.setAutoRanging(true);
 		yAxis.setAnimated(false);
+		
+		// Resample graphs for the visible x-range whenever the x-axis changes
+		InvalidationListener viewportListener = observable -> updateViewport();
+		xAxis.lowerBoundProperty().addListener(viewportListener);
+		xAxis.upperBoundProperty().addListener(viewportListener);
+		xAxis.autoRangingProperty().addListener(viewportListener);
+		xAxis.widthProperty().addListener(viewportListener);
 //		
 		// Add chart to GUI
-		chartPane.getChildren().setAll(lineChart);
+		chartPane.getChildren().setAll(chart);
 	}
 	
 	/**
@@ -362,8 +383,10 @@ public class MainController {
 				else 
 					clearTraceView();
 				
-				// Set seleced trace
+				// Set seleced trace, moving it ahead of other queued traces
 				selectedTrace = newTrace;
+				if (newTrace != null)
+					newTrace.prioritize(TraceExecutor.PRIORITY_SELECTED);
 			}
 		};
 		
@@ -543,8 +566,8 @@ public class MainController {
      */
 	private void updateGraphView() {
     	// Update chart
-//		lineChart.requestLayout();
-    	lineChart.getData().setAll(graphList.stream().map(graph -> graph.getSeries()).collect(Collectors.toList()));
+//		chart.requestLayout();
+    	chart.getGraphs().setAll(graphList);
     	
     	// Update graphs
     	graphList.forEach(graph -> graph.updateGraph());
@@ -569,6 +592,7 @@ public class MainController {
 		graphStyle.setValue(null);
 		graphColor.setValue(Color.valueOf("#FFFFFF"));
 		graphDetail.setValue(50);
+		graphSampling.setValue(null);
 		graphWidth.setValue(50);
 		graphVisible.setSelected(false);
 	}
@@ -580,6 +604,8 @@ public class MainController {
 		// Clear trace properties
 		traceName.setText("");
 	    traceFile.setValue(null);
+	    traceTrack.setItems(FXCollections.observableArrayList());
+	    traceTrack.setVisible(false);
 	    traceIntegration.setValue(null);
 	    traceInterpolation.setValue(null);
 	    traceInertia.setValue(null);
@@ -588,6 +614,7 @@ public class MainController {
 	    traceMaxX.setText("");
 	    traceInitV.setText("");
 	    traceStep.setText("");
+	    traceTolerance.setText("");
 				
 		// Clear trace details
 	    funcTypeLabel.setText("");
@@ -597,6 +624,7 @@ public class MainController {
 	    totalTimeLabel.setText("");
 	    computationTimeLabel.setText("");
 	    energyDifferenceLabel.setText("");
+	    outcomeLabel.setText("");
 	}
 
 	/**
@@ -609,7 +637,7 @@ public class MainController {
 	private void updateChartStyles() {
 		if (graphList.size() == 0) return;
 		
-		for (Node node : lineChart.lookupAll(".chart-legend-item")) {
+		for (Node node : chart.lookupAll(".chart-legend-item")) {
 			Labeled labeledNode = (Labeled) node;
 			Node graphicNode = labeledNode.getGraphic();
 			String nodeSeries = graphicNode.getStyleClass().get(2);
@@ -622,6 +650,24 @@ public class MainController {
 	}
 	
 	
+	/**
+	 * Returns a converter displaying track indices of given trace by their names.
+	 */
+	private StringConverter<Integer> createTrackConverter(Trace trace) {
+		return new StringConverter<Integer>() {
+			@Override
+			public String toString(Integer track) {
+				return (track == null) ? "" : trace.getTrackName(track);
+			}
+			
+			@Override
+			public Integer fromString(String string) {
+				return trace.getTracks().stream().filter(track -> trace.getTrackName(track).equals(string)).findFirst().orElse(null);
+			}
+		};
+	}
+	
+	
 	// Bindings
 	/**
 	 * Bind TraceView inputs to selected trace.
@@ -630,6 +676,11 @@ public class MainController {
 		// Bind trace properties
 		traceName					.textProperty().bindBidirectional(trace.getNameProperty());
 	    traceFile					.valueProperty().bindBidirectional(trace.getFileProperty());
+	    traceTrack					.setItems(trace.getTracks());
+	    traceTrack					.setConverter(createTrackConverter(trace));
+	    traceTrack					.valueProperty().bindBidirectional(trace.getTrackProperty());
+	    traceTrack					.visibleProperty().bind(Bindings.size(trace.getTracks()).greaterThan(1));
+	    traceTrack					.managedProperty().bind(traceTrack.visibleProperty());
 	    traceIntegration			.valueProperty().bindBidirectional(trace.getIntegrationProperty());
 	    traceInterpolation			.valueProperty().bindBidirectional(trace.getInterpolationProperty());
 	    traceInertia				.valueProperty().bindBidirectional(trace.getInertiaProperty());
@@ -638,6 +689,7 @@ public class MainController {
 	    traceMaxX					.textProperty().bindBidirectional(trace.getMaxXProperty(), customStringConverter);
 	    traceInitV					.textProperty().bindBidirectional(trace.getInitVProperty(), customStringConverter);
 	    traceStep					.textProperty().bindBidirectional(trace.getStepProperty(), customStringConverter);
+	    traceTolerance				.textProperty().bindBidirectional(trace.getToleranceProperty(), customStringConverter);
 		
 		// Set trace details
 	    funcTypeLabel				.textProperty().bind(trace.getInterpolationTypeProperty());
@@ -647,6 +699,7 @@ public class MainController {
 	    totalTimeLabel				.textProperty().bind(trace.getTotalTimeProperty());
 	    computationTimeLabel		.textProperty().bind(trace.getComputationTimeProperty());
 	    energyDifferenceLabel		.textProperty().bind(trace.getEnergyDifferenceProperty());
+	    outcomeLabel				.textProperty().bind(Bindings.when(trace.getLoadingProperty()).then("Loading file...").otherwise(trace.getOutcomeProperty()));
 	    
 	    // Add change listeners
 	 	trace.getNameProperty().addListener(traceNameChangeListener);
@@ -669,6 +722,7 @@ public class MainController {
 		graphColor					.valueProperty().bindBidirectional(graph.getColorProperty());
 //		graphColor					.valueProperty().bind(graph.getColorProperty());
 		graphDetail					.valueProperty().bindBidirectional(graph.getDetailProperty());
+		graphSampling				.valueProperty().bindBidirectional(graph.getSamplingProperty());
 		graphWidth					.valueProperty().bindBidirectional(graph.getWidthProperty());
 		graphVisible				.selectedProperty().bindBidirectional(graph.getVisibleProperty());
 		
@@ -688,6 +742,9 @@ public class MainController {
 		// Unbind trace properties
 		traceName				.textProperty().unbindBidirectional(trace.getNameProperty());
 		traceFile				.valueProperty().unbindBidirectional(trace.getFileProperty());
+		traceTrack				.valueProperty().unbindBidirectional(trace.getTrackProperty());
+		traceTrack				.visibleProperty().unbind();
+		traceTrack				.managedProperty().unbind();
 		traceIntegration		.valueProperty().unbindBidirectional(trace.getIntegrationProperty());
 		traceInterpolation		.valueProperty().unbindBidirectional(trace.getInterpolationProperty());
 		traceInertia			.valueProperty().unbindBidirectional(trace.getInertiaProperty());
@@ -696,6 +753,7 @@ public class MainController {
 		traceMaxX				.textProperty().unbindBidirectional(trace.getMaxXProperty());
 		traceInitV				.textProperty().unbindBidirectional(trace.getInitVProperty());
 		traceStep				.textProperty().unbindBidirectional(trace.getStepProperty());
+		traceTolerance			.textProperty().unbindBidirectional(trace.getToleranceProperty());
 		
 		// Unbind trace details
 	    funcTypeLabel.textProperty().unbind();
@@ -705,6 +763,7 @@ public class MainController {
 	    totalTimeLabel.textProperty().unbind();
 	    computationTimeLabel.textProperty().unbind();
 	    energyDifferenceLabel.textProperty().unbind();
+	    outcomeLabel.textProperty().unbind();
 		
 		// Remove change listeners
 		trace.getNameProperty().removeListener(traceNameChangeListener);
@@ -726,6 +785,7 @@ public class MainController {
 		graphStyle				.valueProperty().unbindBidirectional(graph.getStyleProperty());
 		graphColor				.valueProperty().unbindBidirectional(graph.getColorProperty());
 		graphDetail				.valueProperty().unbindBidirectional(graph.getDetailProperty());
+		graphSampling			.valueProperty().unbindBidirectional(graph.getSamplingProperty());
 		graphWidth				.valueProperty().unbindBidirectional(graph.getWidthProperty());
 		graphVisible			.selectedProperty().unbindBidirectional(graph.getVisibleProperty());
 		
@@ -751,14 +811,21 @@ public class MainController {
 			}
 		};
     	for (File dataFile : folder.listFiles(fileFilter))
-    		fileList.add(dataFile);
+    		importFile(dataFile);
 	}
 	
 	/**
 	 * Imports all text files from list of files.
 	 */
 	private void importFiles(List<File> files) {
-		files.forEach(file -> fileList.add(file));
+		files.forEach(file -> importFile(file));
+	}
+	
+	/**
+	 * Imports given file. Its' tracking data is loaded in the background once a trace selects it.
+	 */
+	private void importFile(File file) {
+		fileList.add(file);
 	}
 	
 	
@@ -770,10 +837,30 @@ public class MainController {
 		// Bind property for drawing points
 		graph.getPointsProperty().bind(chartPoints.selectedProperty());
 		
+		// Sample for the current x-range
+		updateViewport(graph);
+		
 		// Add graph to graph list
 		graphList.add(graph);
 	}
 	
+	/**
+	 * Passes the visible x-range and width of the chart to all graphs.
+	 */
+	private void updateViewport() {
+		graphList.forEach(this::updateViewport);
+	}
+	
+	/**
+	 * Passes the visible x-range and width of the chart to specified graph. An auto ranging axis shows all samples.
+	 */
+	private void updateViewport(Graph graph) {
+		if (xAxis.isAutoRanging())
+			graph.setViewport(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, (int) xAxis.getWidth());
+		else
+			graph.setViewport(xAxis.getLowerBound(), xAxis.getUpperBound(), (int) xAxis.getWidth());
+	}
+	
 	/**
 	 * Unbinds and removes specified graph.
 	 */
@@ -820,9 +907,9 @@ public class MainController {
     	// Write chart image to file
     	SnapshotParameters snapshotParameters = new SnapshotParameters();
     	snapshotParameters.setFill(Paint.valueOf("#FFFFFF"));
-    	snapshotParameters.setViewport(new Rectangle2D(0, 0, lineChart.getWidth(), lineChart.getHeight()));
+    	snapshotParameters.setViewport(new Rectangle2D(0, 0, chart.getWidth(), chart.getHeight()));
 //    	snapshotParameters.setViewport(new Rectangle2D(0, 0, 350, 300));
-    	WritableImage image = lineChart.lookup(".chart-content").snapshot(snapshotParameters, null);
+    	WritableImage image = chart.lookup(".chart-content").snapshot(snapshotParameters, null);
     	ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", selectedFile);
     }
 
@@ -844,7 +931,7 @@ public class MainController {
     	if (selectedFile == null) return;
     	
     	// Write chart image to file
-    	Region chartBackground = (Region) lineChart.lookup(".chart-plot-background");
+    	Region chartBackground = (Region) chart.lookup(".chart-plot-background");
     	Bounds chartBounds = chartBackground.getBoundsInParent();
 //    	chartBounds.
 //    	double bgWidth = chartBackground.getWidth();
@@ -856,10 +943,19 @@ public class MainController {
     	snapshotParameters.setFill(Paint.valueOf("#FFFFFF"));
     	snapshotParameters.setViewport(new Rectangle2D(chartBounds.getMinX(), chartBounds.getMinY(), chartBounds.getWidth(), chartBounds.getHeight()));
 //    	snapshotParameters.setViewport(new Rectangle2D(0, 0, 350, 300));
-    	WritableImage image = lineChart.lookup(".plot-content").snapshot(snapshotParameters, null);
+    	WritableImage image = chart.lookup(".plot-content").snapshot(snapshotParameters, null);
     	ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", selectedFile);
     }
     
+    @FXML private void handleSweepClick(ActionEvent event) {
+    	// If there is no selected trace, break
+    	if (selectedTrace == null) return;
+    	
+    	// Open sweep around the settings of selected trace
+    	Stage mainStage = (Stage) rootNode.getScene().getWindow();
+    	new SweepWindow(mainStage, selectedTrace.getConfig(), new ArrayList<>(fileList)).show();
+    }
+    
     
     // Trace button handlers
     @FXML private void handleNewTraceClick(ActionEvent event) {
@@ -895,8 +991,8 @@ public class MainController {
     	// Select trace details view
     	traceTabPane.getSelectionModel().selectLast();
     	
-    	// Run trace in parallel
-    	selectedTrace.parallelTrace();
+    	// Run trace in parallel, ahead of other queued traces
+    	selectedTrace.parallelTrace(TraceExecutor.PRIORITY_SELECTED);
     	
     	// Update
     	updateTraceView();
@@ -906,13 +1002,31 @@ public class MainController {
     	// Select trace details view
     	traceTabPane.getSelectionModel().selectLast();
     	
-    	// Run all traces in parallel
-    	traceList.forEach(trace -> trace.parallelTrace());
+    	// Run all traces in parallel, starting with selected and visible traces
+    	traceList.forEach(trace -> {
+    		if (trace == selectedTrace)
+    			trace.parallelTrace(TraceExecutor.PRIORITY_SELECTED);
+    		else
+    			trace.parallelTrace();
+    	});
     	
     	// Update
     	updateTraceView();
     }
     
+    @FXML private void handleCancelClick(ActionEvent event) {
+    	// If there is no selected trace, break
+    	if (selectedTrace == null) return;
+    	
+    	// Cancel selected trace, keeping its' previous results
+    	selectedTrace.cancel();
+    }
+    
+    @FXML private void handleCancelAllClick(ActionEvent event) {
+    	// Cancel all running traces
+    	traceList.forEach(trace -> trace.cancel());
+    }
+    
     @FXML private void handleTraceListClick(Event event) {
     	// Update
     	updateTraceView();
@@ -937,7 +1051,7 @@ public class MainController {
     	
     	// Import and select file(s)
     	if (selectedFiles.size() == 1) {
-    		fileList.add(selectedFiles.get(0));
+    		importFile(selectedFiles.get(0));
     		selectedTrace.setFile(selectedFiles.get(0));
     	} else {
     		importFiles(selectedFiles);
@@ -0,0 +1,223 @@
+package app;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jfoenix.controls.JFXButton;
+import com.jfoenix.controls.JFXComboBox;
+import com.jfoenix.controls.JFXTextField;
+
+import enums.Parameter;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.FileChooser.ExtensionFilter;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import simulation.Sweep;
+import simulation.SweepResult;
+import simulation.TraceConfig;
+
+/**
+ * Window sweeping up to two parameters around the configuration of a trace, listing a summary of every point.
+ * The sweep runs on the common fork/join pool, and is cancelled when the window is closed.
+ */
+public class SweepWindow {
+	// Data
+	private final TraceConfig base;
+	private final List<File> files;
+	private SweepResult result;
+	private Thread worker;
+	// Controls
+	private final Stage stage = new Stage();
+	private final JFXComboBox<Parameter> firstParameter = new JFXComboBox<>();
+	private final JFXComboBox<Parameter> secondParameter = new JFXComboBox<>();
+	private final JFXTextField firstValues = new JFXTextField();
+	private final JFXTextField secondValues = new JFXTextField();
+	private final JFXButton runButton = new JFXButton("Run");
+	private final JFXButton cancelButton = new JFXButton("Cancel");
+	private final JFXButton exportButton = new JFXButton("Export");
+	private final ProgressBar progressBar = new ProgressBar(0);
+	private final Label statusLabel = new Label();
+	private final TableView<String[]> table = new TableView<>();
+	// Constants
+	private static final String VALUES_PROMPT = "Values, separated by ; or start:end:count";
+	
+	
+	// Constructor
+	/**
+	 * Creates a window sweeping parameters of given configuration. Files swept without given values are taken from given list.
+	 */
+	public SweepWindow(Window owner, TraceConfig base, List<File> files) {
+		this.base = base;
+		this.files = files;
+		
+		// Parameter selection, the second parameter is optional
+		ObservableList<Parameter> parameters = FXCollections.observableArrayList(Parameter.getElements());
+		firstParameter.setItems(parameters);
+		firstParameter.getSelectionModel().select(Parameter.STEP);
+		secondParameter.setItems(FXCollections.observableArrayList(parameters));
+		secondParameter.getItems().add(0, null);
+		secondParameter.setPromptText("None");
+		firstValues.setPromptText(VALUES_PROMPT);
+		secondValues.setPromptText(VALUES_PROMPT);
+		
+		GridPane grid = new GridPane();
+		grid.setHgap(10);
+		grid.setVgap(10);
+		grid.addRow(0, new Label("Parameter:"), firstParameter, firstValues);
+		grid.addRow(1, new Label("Parameter:"), secondParameter, secondValues);
+		GridPane.setHgrow(firstValues, Priority.ALWAYS);
+		GridPane.setHgrow(secondValues, Priority.ALWAYS);
+		
+		// Buttons
+		runButton.setOnAction(event -> handleRunClick());
+		cancelButton.setOnAction(event -> handleCancelClick());
+		exportButton.setOnAction(event -> handleExportClick());
+		cancelButton.setDisable(true);
+		exportButton.setDisable(true);
+		progressBar.setMaxWidth(Double.MAX_VALUE);
+		HBox.setHgrow(progressBar, Priority.ALWAYS);
+		HBox buttons = new HBox(10, runButton, cancelButton, exportButton, progressBar);
+		
+		// Layout
+		VBox.setVgrow(table, Priority.ALWAYS);
+		VBox root = new VBox(10, grid, buttons, statusLabel, table);
+		root.setPadding(new Insets(15));
+		root.setStyle("-fx-background-color: #EEEEEE;");
+		
+		stage.initOwner(owner);
+		stage.setTitle("Parameter sweep");
+		stage.setScene(new Scene(root, 800, 500));
+		stage.setOnHidden(event -> handleCancelClick());
+	}
+	
+	
+	/**
+	 * Shows the window.
+	 */
+	public void show() {
+		stage.show();
+	}
+	
+	
+	// Action handlers
+	private void handleRunClick() {
+		// Define sweep, reporting invalid values
+		Sweep sweep = new Sweep(base);
+		try {
+			if (firstParameter.getValue() != null)
+				sweep.add(createAxis(firstParameter.getValue(), firstValues.getText()));
+			if (secondParameter.getValue() != null)
+				sweep.add(createAxis(secondParameter.getValue(), secondValues.getText()));
+		} catch (IllegalArgumentException e) {
+			statusLabel.setText(e.getMessage());
+			return;
+		}
+		int size = sweep.size();
+		int reportInterval = Math.max(1, size / 100);
+		
+		// Run sweep off the FX Application Thread
+		setRunning(true);
+		statusLabel.setText(String.format("Tracing %d points...", size));
+		progressBar.setProgress(0);
+		worker = new Thread(() -> {
+			try {
+				SweepResult sweepResult = sweep.run(ForkJoinPool.commonPool(), finished -> {
+					if (finished % reportInterval == 0  ||  finished == size)
+						Platform.runLater(() -> progressBar.setProgress((double) finished / size));
+				});
+				Platform.runLater(() -> showResult(sweepResult));
+			} catch (CancellationException e) {
+				Platform.runLater(() -> statusLabel.setText("Cancelled."));
+			} catch (RuntimeException e) {
+				Platform.runLater(() -> statusLabel.setText(e.getMessage()));
+			} finally {
+				Platform.runLater(() -> setRunning(false));
+			}
+		}, "Sweep");
+		worker.setDaemon(true);
+		worker.start();
+	}
+	
+	private void handleCancelClick() {
+		// Stops points not yet started, running points are completed
+		if (worker != null)
+			worker.interrupt();
+	}
+	
+	private void handleExportClick() {
+		// Construct file chooser
+		FileChooser fileChooser = new FileChooser();
+		fileChooser.setTitle("Export sweep");
+		fileChooser.getExtensionFilters().addAll(
+				new ExtensionFilter("Tab separated file (*.txt)", "*.txt"),
+				new ExtensionFilter("All Files", "*.*"));
+		
+		// Launch file chooser and write table to selected file
+		File selectedFile = fileChooser.showSaveDialog(stage);
+		if (selectedFile == null) return;
+		try {
+			result.write(selectedFile);
+		} catch (IOException e) {
+			statusLabel.setText("Could not export sweep: " + e.getMessage());
+		}
+	}
+	
+	
+	// Helpers
+	/**
+	 * Parses an axis of given parameter. Files without given values are taken from the imported files.
+	 */
+	private Sweep.Axis createAxis(Parameter parameter, String text) {
+		if (parameter == Parameter.FILE  &&  text.trim().isEmpty())
+			return Sweep.Axis.files(files.toArray(new File[0]));
+		
+		return Sweep.Axis.parse(parameter, text);
+	}
+	
+	/**
+	 * Lists the points of given result, one row per point.
+	 */
+	private void showResult(SweepResult sweepResult) {
+		result = sweepResult;
+		
+		// One column per header entry
+		table.getColumns().clear();
+		String[] header = result.getHeader();
+		for (int i = 0; i < header.length; i++) {
+			int column = i;
+			TableColumn<String[], String> tableColumn = new TableColumn<>(header[i]);
+			tableColumn.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue()[column]));
+			table.getColumns().add(tableColumn);
+		}
+		table.setItems(FXCollections.observableArrayList(result.getTable()));
+		
+		long failed = result.getTable().stream().filter(row -> row[result.getAxes().size()].equals("Failed")).count();
+		statusLabel.setText(String.format("Traced %d points, %d failed.", result.size(), failed));
+	}
+	
+	/**
+	 * Enables controls according to whether a sweep is running.
+	 */
+	private void setRunning(boolean running) {
+		runButton.setDisable(running);
+		cancelButton.setDisable(!running);
+		exportButton.setDisable(running  ||  result == null);
+	}
+}
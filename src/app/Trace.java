@@ -2,15 +2,18 @@ package app;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import enums.Inertia;
 import enums.Integration;
 import enums.Interpolation;
-import functions.AbstractDifferentiable;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
@@ -25,13 +28,23 @@ import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
-import parsers.Data;
+import parsers.DataRegistry;
+import parsers.Dataset;
+import simulation.Simulation;
+import simulation.SimulationResult;
+import simulation.TraceConfig;
+import simulation.TraceResult;
 
 
+/**
+ * GUI adapter of a trace, exposing its' parameters and results as JavaFX properties.
+ * Computations are delegated to the headless {@link Simulation} engine.
+ */
 public class Trace {
 	// Data
 	private StringProperty name;
 	private ObjectProperty<File> file;
+	private ObjectProperty<Integer> track;
 	private ObjectProperty<Integration> integration;
 	private ObjectProperty<Interpolation> interpolation;
 	private ObjectProperty<Inertia> inertia;
@@ -40,7 +53,11 @@ public class Trace {
 	private ObjectProperty<Double> maxX;
 	private ObjectProperty<Double> initV;
 	private ObjectProperty<Double> step;
+	private ObjectProperty<Double> tolerance;
+	private ObjectProperty<Long> maxIterations;
+	private ObjectProperty<Double> maxTime;
 	private BooleanProperty initialized;
+	private BooleanProperty loading;
 	// Details
 	private StringProperty integrationType;
 	private StringProperty interpolationType;
@@ -49,54 +66,26 @@ public class Trace {
 	private StringProperty totalTime;
 	private StringProperty computationTime;
 	private StringProperty energyDifference;
+	private StringProperty outcome;
 	// Progress bar
 	private IntegerProperty progress;
-	// Temporary fields to avoid multithread UI updates
-	private String tempIntegrationType;
-	private String tempInterpolationType;
-	private String tempStepSize;
-	private String tempIterations;
-	private String tempTotalTime;
-	private String tempComputationTime;
-	private String tempEnergyDifference;
-	//Function
-	private AbstractDifferentiable func;
-	private double[] domain;
-	private double rawIterations;
-	private double min, max;
 	//Collections
 	private ObservableMap<String, ObservableList<Double>> traceMap;
-	private ObservableList<Double> aList, vList, xList, yList, tList;
-	private ObservableList<Double> totList, kinList, potList;
-	private ObservableList<Double> normForceList, fricForceList;
-	private ObservableList<Double> slopeAngleList, slopeAngleDegList, radCurvatureList;
-	private ObservableList<Double> tListRaw, xListRaw, yListRaw, vListRaw, sListRaw;
+	private TraceResult traceResult;
+	private Dataset dataset;
+	private List<String> trackNames;
+	private ObservableList<Integer> tracks;
 	private HashSet<Graph> linkedGraphs;
+	//Running computation and its' request number, and file being loaded
+	private Future<?> task;
+	private long traceRequest;
+	private CompletableFuture<Dataset> loadTask;
+	private long loadRequest;
 	//Change listeners
 	private ChangeListener<File> fileChangeListener;
+	private ChangeListener<Integer> trackChangeListener;
 	//Constants
-	public static final int SIZE_LIMIT = 10000;
-	public static final double G = 9.82814;
-	public static final String[] MAP_KEYS = new String[] {
-			"Acceleration",
-			"Velocity",
-			"Position (x)",
-			"Position (y)",
-			"Time (s)",
-			"Total energy",
-			"Kinetic energy",
-			"Potential energy",
-			"Raw data (t)",
-			"Raw data (x)",
-			"Raw data (y)",
-			"Raw data (v)",
-			"Normal force",
-			"Friction force",
-			"Slope angle (Rad)",
-			"Slope angle (Deg)",
-			"Radius of Curvature"};
-	
-	int listSize = 0;
+	public static final String[] MAP_KEYS = Simulation.CHANNELS;
 
 	
 	//Constructors
@@ -123,6 +112,9 @@ public class Trace {
 		setMaxX(Double.POSITIVE_INFINITY);
 		setInitV(0d);
 		setStep(0.001);
+		setTolerance(TraceConfig.TOLERANCE);
+		setMaxIterations(TraceConfig.MAX_ITERATIONS);
+		setMaxTime(TraceConfig.MAX_TIME);
 	}	
 
 	/**
@@ -152,6 +144,9 @@ public class Trace {
 		setMaxX(maxX);
 		setInitV(initV);
 		setStep(step);
+		setTolerance(TraceConfig.TOLERANCE);
+		setMaxIterations(TraceConfig.MAX_ITERATIONS);
+		setMaxTime(TraceConfig.MAX_TIME);
 	}
 	
 	
@@ -162,6 +157,7 @@ public class Trace {
 	private void initializeProperties() {
 		name = new SimpleStringProperty();
 		file = new SimpleObjectProperty<>();
+		track = new SimpleObjectProperty<>(0);
 		integration = new SimpleObjectProperty<>();
 		interpolation = new SimpleObjectProperty<>();
 		inertia = new SimpleObjectProperty<>();
@@ -170,7 +166,11 @@ public class Trace {
 		maxX = new SimpleObjectProperty<>();
 		initV = new SimpleObjectProperty<>();
 		step = new SimpleObjectProperty<>();
+		tolerance = new SimpleObjectProperty<>();
+		maxIterations = new SimpleObjectProperty<>();
+		maxTime = new SimpleObjectProperty<>();
 		initialized = new SimpleBooleanProperty();
+		loading = new SimpleBooleanProperty();
 		
 		integrationType = new SimpleStringProperty();
 		interpolationType = new SimpleStringProperty();
@@ -179,6 +179,7 @@ public class Trace {
 		totalTime = new SimpleStringProperty();
 		computationTime = new SimpleStringProperty();
 		energyDifference = new SimpleStringProperty();
+		outcome = new SimpleStringProperty();
 		
 		progress = new SimpleIntegerProperty();
 	}
@@ -187,144 +188,155 @@ public class Trace {
 	 * Initializes all trace collections.
 	 */
 	private void initializeCollections() {
-		// Initialize map
+		// Initialize map and column store
 		traceMap = FXCollections.observableHashMap();
+		traceResult = new TraceResult();
+		trackNames = Collections.emptyList();
+		tracks = FXCollections.observableArrayList();
 
 		// Initialize collections
-		initializeLists();
-		initializeRawLists();
+		initializeRawData();
 
 		//Initialize linked graph container
 		linkedGraphs = new HashSet<>();
 	}
 
 	/**
-	 * Initialize raw data lists and fill if a file has been selected.
-	 * Called on initialization and whenever a new file is selected.
+	 * Initialize raw data columns, and load them in the background if a file has been selected.
+	 * Rows are published as they are parsed, and linked graphs updated once the file is loaded.
+	 * Called on initialization and whenever a new file or track is selected.
 	 */
-	private void initializeRawLists() {
-		//Initialize raw data collections
-		tListRaw = FXCollections.observableArrayList();
-		xListRaw = FXCollections.observableArrayList();
-		yListRaw = FXCollections.observableArrayList();
-		sListRaw = FXCollections.observableArrayList();
-		vListRaw = FXCollections.observableArrayList();
-
-		//Fill raw data collections
-		if (getFile() != null) {
-			double[][] rawData = Data.parseFile(getFile());
-			Arrays.stream(rawData[0]).forEach(doub -> tListRaw.add(Double.valueOf(doub)));
-			Arrays.stream(rawData[1]).forEach(doub -> xListRaw.add(Double.valueOf(doub)));
-			Arrays.stream(rawData[2]).forEach(doub -> yListRaw.add(Double.valueOf(doub)));
-			
-			vListRaw.add(0d);
-			for (int i = 1; i < rawData[0].length; i++) {
-				double x0 = rawData[1][i - 1];
-				double x1 = rawData[1][i];
-				double y0 = rawData[2][i - 1];
-				double y1 = rawData[2][i];
-				double dy = y1 - y0;
-				double dx = x1 - x0;
-				
-				vListRaw.add(Math.sqrt(dy*dy + dx*dx) / 0.01);
-			}
+	private void initializeRawData() {
+		//Replace any file being loaded, late results of previous requests are ignored
+		FileLoader.cancel(loadTask);
+		long request = ++loadRequest;
+		publishRawData(null);
+		if (getFile() == null) {
+			loadTask = null;
+			setLoading(false);
+			updateGraphs();
+			return;
 		}
 		
-		//Fill map
-		traceMap.put("Raw data (t)", tListRaw);
-		traceMap.put("Raw data (x)", xListRaw);
-		traceMap.put("Raw data (y)", yListRaw);
-		traceMap.put("Raw data (v)", vListRaw);
+		//Shared dataset, held by the trace while its' file and track are selected
+		setLoading(true);
+		updateGraphs();
+		loadTask = FileLoader.load(getFile(), getTrack(), partial -> Platform.runLater(() -> {
+			if (request != loadRequest) return;
+			publishRawData(partial);
+			updateGraphs();
+		}));
+		loadTask.whenComplete((loaded, error) -> Platform.runLater(() -> {
+			if (request != loadRequest) return;
+			setLoading(false);
+			if (error == null)
+				publishRawData(loaded);
+			else
+				setOutcome((error instanceof CompletionException  &&  error.getCause() != null) ? error.getCause().getMessage() : error.getMessage());
+			updateGraphs();
+		}));
 	}
 	
 	/**
-	 * Initialize data lists.
+	 * Publishes the raw data columns of given dataset (may be null), holding the dataset while it is shown.
+	 * Only call this method from FXApplication Thread.
 	 */
-	private void initializeLists() {
-		// Initialize observable lists
-		aList = FXCollections.observableArrayList();
-		vList = FXCollections.observableArrayList();
-		xList = FXCollections.observableArrayList();
-		yList = FXCollections.observableArrayList();
-		tList = FXCollections.observableArrayList();
-		totList = FXCollections.observableArrayList();
-		kinList = FXCollections.observableArrayList();
-		potList = FXCollections.observableArrayList();
-		normForceList = FXCollections.observableArrayList();
-		fricForceList = FXCollections.observableArrayList();
-		slopeAngleList = FXCollections.observableArrayList();
-		slopeAngleDegList = FXCollections.observableArrayList();
-		radCurvatureList = FXCollections.observableArrayList();
-
-		// Fill map
-		traceMap.put("Acceleration", aList);
-		traceMap.put("Velocity", vList);
-		traceMap.put("Position (x)", xList);
-		traceMap.put("Position (y)", yList);
-		traceMap.put("Time (s)", tList);
-		traceMap.put("Total energy", totList);
-		traceMap.put("Kinetic energy", kinList);
-		traceMap.put("Potential energy", potList);
-		traceMap.put("Normal force", normForceList);
-		traceMap.put("Friction force", fricForceList);
-		traceMap.put("Slope angle (Rad)", slopeAngleList);
-		traceMap.put("Slope angle (Deg)", slopeAngleDegList);
-		traceMap.put("Radius of Curvature", radCurvatureList);
+	private void publishRawData(Dataset dataset) {
+		this.dataset = dataset;
+		publishResult(Simulation.rawData(dataset));
+	}
+	
+	/**
+	 * Lists the tracks of the selected file, reading only its' header. Called whenever a new file is selected.
+	 * Files that cannot be read list no tracks, the error is reported once the file is loaded.
+	 */
+	private void initializeTracks() {
+		try {
+			trackNames = (getFile() == null) ? Collections.emptyList() : DataRegistry.getTrackNames(getFile());
+		} catch (RuntimeException e) {
+			trackNames = Collections.emptyList();
+		}
+		
+		List<Integer> indices = new ArrayList<>();
+		for (int i = 0; i < trackNames.size(); i++)
+			indices.add(i);
+		tracks.setAll(indices);
+	}
+	
+	/**
+	 * Publishes all columns of given result, replacing the corresponding views in the data map.
+	 * Only call this method from FXApplication Thread.
+	 */
+	private void publishResult(TraceResult result) {
+		traceResult.putAll(result);
+		for (String key : result.getKeys())
+			traceMap.put(key, new ColumnView(result, key));
 	}
 	
 	/**
-	 * Change listener for selected file, updating raw data sets
+	 * Change listeners for selected file and track, updating raw data sets
 	 */
 	private void initializeChangeListeners() {
 		fileChangeListener = new ChangeListener<>() {
 			@Override
 			public void changed(ObservableValue<? extends File> arg0, File arg1, File arg2) {
-				initializeRawLists();
+				initializeTracks();
 				
-				//Update subscribing graphs if trace is run from GUI
-				if (linkedGraphs != null)  
-					linkedGraphs.forEach(graph -> graph.updateGraph());
+				//Start from the first track of the new file, reloading raw data through the track listener if changed
+				if (getTrack() == null  ||  getTrack() != 0) {
+					setTrack(0);
+					return;
+				}
+				initializeRawData();
+			}
+		};
+		
+		trackChangeListener = new ChangeListener<>() {
+			@Override
+			public void changed(ObservableValue<? extends Integer> arg0, Integer arg1, Integer arg2) {
+				//Ignore selections cleared by the GUI
+				if (arg2 == null) return;
+				initializeRawData();
 			}
 		};
 		
 		file.addListener(fileChangeListener);
+		track.addListener(trackChangeListener);
 	}
 	
 	
 	// Helpers
 	/**
-	 * Returns {@code true} if Trace is runnable, else {@code false}.
+	 * Returns an immutable snapshot of the trace parameters.
 	 */
-	private void validateTrace() {
-		//Validate mass
-		if (getMass() <= 0)
-			throw new IllegalArgumentException("Mass must be positive.");
-		
-		//Validate inertia constant
-		if (getInertia().VALUE < 0)
-			throw new IllegalArgumentException("Moment of inertia cannot be negative.");
+	public TraceConfig getConfig() {
+		return new TraceConfig(getFile(), (getTrack() == null) ? 0 : getTrack(), getIntegration(), getInterpolation(), getInertia(),
+							   getMass(), getMinX(), getMaxX(), getInitV(), getStep(),
+							   getTolerance(), getMaxIterations(), getMaxTime());
 	}
 	
 	/**
-	 * Clears all data collections, called upon when reevaluating trace.
+	 * Update trace details with given result, if any. Only call this method from FXApplication Thread.
 	 */
-	private void clearCollections() {
-		initializeLists();
-		initializeRawLists();
-	}
-	
-	/**
-	 * Update trace details. Only call this method from FXApplication Thread.
-	 */
-	public void updateTrace() {
-		// Update trace details
-		setIntegrationType(tempIntegrationType);
-		setInterpolationType(tempInterpolationType);
-		setEnergyDifference(tempEnergyDifference);
-		setIterations(tempIterations);
-		setStepSize(tempStepSize);
-		setTotalTime(tempTotalTime);
-		setComputationTime(tempComputationTime);
+	public void updateTrace(SimulationResult result) {
+		if (result != null) {
+			// Update trace details
+			boolean adaptive = result.getConfig().getIntegration() == Integration.DORMAND_PRINCE_METHOD;
+			setIntegrationType(result.getConfig().getIntegration().TEXT);
+			setInterpolationType(result.getConfig().getInterpolation().TEXT);
+			setEnergyDifference(String.format("%.9f %%", result.getEnergyDifference()));
+			setIterations(adaptive
+					? String.format("%s accepted, %s rejected", formatCount(result.getSteps()), formatCount(result.getRejectedSteps()))
+					: formatCount(result.getSteps()));
+			setStepSize(!adaptive ? String.valueOf(result.getConfig().getStep())
+					: (Double.isNaN(result.getMinStep()) ? "-" : String.format("%.3g - %.3g", result.getMinStep(), result.getMaxStep()).replace(',', '.')));
+			setTotalTime(String.format("%f", result.getTotalTime()).replace(',', '.'));
+			setComputationTime(String.format("%.3f seconds", (double) result.getComputationTime().toMillis()/1000).replace(',', '.'));
+			setOutcome(result.getOutcome().TEXT);
+			
+			// Publish computed channels
+			publishResult(result.getData());
+		}
 		
 		//Update subscribing graphs if trace is run from GUI
 		if (linkedGraphs != null)  
@@ -332,53 +344,15 @@ public class Trace {
 	}
 
 	
-	// Trace
-	/**
-	 * Run selected interpolation.
-	 */
-	private void interpolate() {  /// IS INTERPOLATABLE... RAW / FULL TRACE
-		//Perform interpolation and set domain
-		switch (getInterpolation()) {
-		case POLYNOMIAL:
-			func = analysis.Interpolation.polynomialInterpolation(getFile());
-			break;
-		case POLYNOMIAL_SPLINE:
-			func = analysis.Interpolation.polynomialSplineInterpolation(getFile());
-			break;
-		}
-		
-		//Set trace details
-		tempInterpolationType = getInterpolation().TEXT;
-		
-		//Set domain
-		domain = func.getDomain();
-		min = Math.max(getMinX(), domain[0]);
-		max = Math.min(getMaxX(), domain[1]);
-	}
-	
+	// Trace <-> Graph links 
 	/**
-	 * Perform selected integration.
+	 * Updates all linked graphs, if trace is run from GUI.
 	 */
-	private void integrate() {
-		// Perform trace using given integration method
-		switch (getIntegration()) {
-		case EULER_METHOD:
-			eulerTrace();
-			break;
-		case EULER_IMPROVED_METHOD:
-			System.out.println("Integration type not supported: " + getIntegration().TEXT);
-			break;
-		case RUNGE_KUTTA_METHOD:
-			System.out.println("Integration type not supported: " + getIntegration().TEXT);
-			break;
-		}
-		
-		//Set trace details
-		tempIntegrationType = getIntegration().TEXT;
+	private void updateGraphs() {
+		if (linkedGraphs != null)  
+			linkedGraphs.forEach(graph -> graph.updateGraph());
 	}
 	
-	
-	// Trace <-> Graph links 
 	/*
 	 * Returns a HashSet containing all Trace <-> Graph links.
 	 */
@@ -401,208 +375,101 @@ public class Trace {
 	}
 	
 	
-	// Calculations
+	// Trace
 	/**
-	 * Evaluates the acceleration at given x-coordinate.
+	 * Performs a trace of the experiment, returning its' result.
 	 */
-	private double getAccel(double x) {
-		// Evaluates the slope angle α(x) 
-		double angle = func.slopeAngle(x);
-		
-		// Numerator: g * sin α(x)				| 
-		double numerator = G * Math.sin(angle);
-		
-		// Formula for moment of inertia: I₀ = c * mr²
-		// Denominator: 1 + I₀ / mr²
-		// 			  = 1 + c * mr² / mr²		| insert I₀ = c * mr²	
-		// 			  = 1 + c					| cancel terms
-		double denominator = 1 + getInertia().VALUE;
+	public SimulationResult trace() {
+		// Reset progress bar
+		resetProgress();
 		
-		// Return acceleration
-		return numerator / denominator;
+		return trace(traceRequest);
 	}
-
+	
 	/**
-	 * Returns the kinetic energy for a given velocity.
+	 * Performs a trace of the experiment as computation with given request number, returning its' result.
+	 * Progress is only shown while the computation has not been replaced.
 	 */
-	private double getKineticEnergy(double v) {
-		return 0.5*getMass()*v*v  +  0.5*getMass()*getInertia().VALUE*v*v;
-   	}
+	SimulationResult trace(long request) {
+		// Snapshot parameters, validated by the simulation
+		TraceConfig config = getConfig();
+		
+		// Mark trace as initialized
+		setInitialized(true);
+		
+		// Run simulation, performing GUI Updates in FX Application Thread
+		SimulationResult result = Simulation.run(config, percent -> Platform.runLater(() -> {
+			if (isCurrent(request))
+				incrementProgress();
+		}));
+		System.out.println(result.getFunction().toString());
+		return result;
+	}
 	
 	/**
-	 * Returns the potential energy for a given x-coordinate.
+	 * Performs trace using the shared trace executor, prioritized by the visibility of linked graphs.
+	 * Returns a handle which may be used to cancel the trace.
 	 */
-	private double getPotentialEnergy(double x) {
-		return getMass() * Trace.G * func.eval(x);
+	public Future<?> parallelTrace() {
+		return parallelTrace(isVisible() ? TraceExecutor.PRIORITY_VISIBLE : TraceExecutor.PRIORITY_BACKGROUND);
 	}
 	
 	/**
-	 * Returns the total energy for a given velocity and x-coordinate.
+	 * Performs trace using the shared trace executor with given priority (see {@link TraceExecutor}).
+	 * Any previous computation still queued or running is replaced.
+	 * Returns a handle which may be used to cancel the trace.
 	 */
-	private double getTotalEnergy(double x, double v) {
-		return getKineticEnergy(v) + getPotentialEnergy(x);
+	public Future<?> parallelTrace(int priority) {
+		// Reset progress bar
+		resetProgress();
+		
+		//Perform trace, replacing previous computation
+		task = TraceExecutor.submit(new TraceProcessor(this, ++traceRequest), priority, task);
+		return task;
 	}
 	
 	/**
-	 * Returns the fricton force for a given x-coordinate.
-	 * Explanation:
-	 *  -> SUM(F_x) = Parallel - Friction
-	 *  -> Friction = SUM(F_x) - Parallel
+	 * Returns {@code true} if given request number belongs to the latest computation, else {@code false}.
+	 * Only call this method from FXApplication Thread.
 	 */
-	private double getFrictionForce(double x) {
-		return getMass() * (G * Math.sin(func.slopeAngle(x)) - getAccel(x));
+	public boolean isCurrent(long request) {
+		return request == traceRequest;
 	}
 	
 	/**
-	 * Returns the normal force for a given velocity and x-coordinate.
-	 * This is equivalent to the sum of the normal and the centripetal force.
+	 * Moves a queued computation to given priority, if any.
 	 */
-	private double getNormalForce(double x, double v) {
-		// Normal force
-		double normal = getMass() * G * Math.cos(func.slopeAngle(x));
-		
-		// Centripetal force
-		double centripetal = (getMass()*v*v) / func.radiusOfCurvature(x);
-		
-//		System.out.printf("x: %s\tv: %s\tNormal: %s\tCentripetal: %s\t Total: %s%n", x, v, normal, centripetal, normal + centripetal);
-		return normal + centripetal;
+	public void prioritize(int priority) {
+		TraceExecutor.prioritize(task, priority);
 	}
 	
-	
-	// Trace
 	/**
-	 * Performs a trace of the experiment.
+	 * Cancels the queued or running computation, if any. Previously computed results are kept.
+	 * Returns {@code true} if a computation was cancelled, else {@code false}.
 	 */
-	public void trace() {
-		// Reset progress bar
-		resetProgress();
-		
-		// Validate instance variables
-		validateTrace();
-		
-		// Clear data collections if initialized
-		if (isInitialized())
-			clearCollections();		
-		setInitialized(true);
-		
-		// Run interpolation
-		interpolate();
-		
-		// Run integration
-		integrate();
-		
-		//If Trace is not processed in parallel thread, update GUI bindings
-//		if (Platform.isFxApplicationThread())
-//			updateDetails();
-
+	public boolean cancel() {
+		return TraceExecutor.cancel(task);
 	}
 	
 	/**
-	 * Performs trace using separate thread.
+	 * Returns {@code true} if any linked graph is visible, else {@code false}.
 	 */
-	public void parallelTrace() {
-		// Reset progress bar
-		resetProgress();
-		listSize = 0;
-		
-		//Perform trace
-		new Thread(new TraceProcessor(this)).start();
+	public boolean isVisible() {
+		return linkedGraphs != null  &&  linkedGraphs.stream().anyMatch(graph -> Boolean.TRUE.equals(graph.getVisible()));
 	}
 	
 	/**
-	 * Trace performed using Eulers method.
+	 * Returns {@code true} if a computation is running, else {@code false}.
 	 */
-	private void eulerTrace() {
-		//Used to compute simulation time
-		Instant start = Instant.now();
-		
-		// Calibrate using raw trace
-		rawEulerTrace();
-		
-		// Set initial parameters
-		double x = min;
-		double v = getInitV();
-		double a = getAccel(x);	
-		
-		//Keeps track of iterations
-		int iter = 0;
-		
-		// Calculate step size
-		double step = ((double) rawIterations - 1d)  /  ((double) SIZE_LIMIT - 1d);
-		
-		// Fill list
-		HashSet<Integer> indexSet = new HashSet<>();
-		for (int i = 0; i < SIZE_LIMIT; i++)
-				indexSet.add((int) Math.round(step * (double) i));
-		
-		
-		//Iterate until track is complete (x has reached its' end value)
-		while (x < max) {
-			if (indexSet.contains(iter++)) {
-				aList.add(a);
-				vList.add(v);
-				xList.add(x);
-				yList.add(func.eval(x));
-				tList.add(iter*getStep());
-				totList.add(getTotalEnergy(x, v));
-				kinList.add(getKineticEnergy(v));
-				potList.add(getPotentialEnergy(x));
-				normForceList.add(getNormalForce(x, v));
-				fricForceList.add(getFrictionForce(x));
-				slopeAngleList.add(func.slopeAngle(x));
-				slopeAngleDegList.add(func.slopeAngleDegrees(x));
-				radCurvatureList.add(func.radiusOfCurvature(x));
-				
-				//Perform GUI Updates in FX Application Thread
-				if (listSize++ % 100 == 0) {
-					Platform.runLater(() -> incrementProgress());
-//					System.out.println(getProgress());
-				}
-			}
-				
-			a = getAccel(x);	
-			v = v + a * getStep();
-			x = x + v * Math.cos(func.slopeAngle(x)) * getStep();
-			
-			//Print iteration results
-//			if (printIterations)
-//				System.out.println(String.format("%d\t\ta = %.8f\t\t v = %.8f\t\t x = %.8f\t\t eKin = %.8f\t\t ePot = %.8f\t\t eTot = %.8f\t\t", iter, a, v, x, eKin, ePot, eTot).replace(',', '.'));
-		}
-		
-		
-		// End computation timer
-		Instant end = Instant.now();
-
-		// Update trace details
-		tempEnergyDifference = String.format("%.9f %%", ((
-				getTotalEnergy(min, getInitV()) - 
-				getTotalEnergy(xList.get(xList.size() - 1), vList.get(vList.size() - 1)))/
-				getTotalEnergy(xList.get(xList.size() - 1), vList.get(vList.size() - 1)))*100);
-		tempIterations = String.valueOf(iter * 2);
-		tempIterations = String.format("%,d", iter*2).replace(',', ' ');
-		tempStepSize = String.valueOf(getStep());
-		tempTotalTime = String.format("%f", iter * getStep()).replace(',', '.');
-		tempComputationTime = String.format("%.3f seconds", (double) Duration.between(start, end).toMillis()/1000).replace(',', '.');
-		System.out.println(func.toString());
+	public boolean isRunning() {
+		return task != null  &&  !task.isDone();
 	}
 	
 	/**
-	 * Raw trace performed without data storage.
+	 * Formats given count with spaces as thousands separators.
 	 */
-	private void rawEulerTrace() {
-		// Set initial parameters
-		double i = 0;
-		double x = min; 
-		double v = getInitV();
-		double step = getStep();
-
-		while (x < max) {
-			v += getAccel(x) * step;
-			x += v * Math.cos(func.slopeAngle(x)) * step;
-			i++;
-		}
-		
-		rawIterations = i;
+	private static String formatCount(long count) {
+		return String.format("%,d", count).replace(',', ' ');
 	}
 	
 	
@@ -618,14 +485,16 @@ public class Trace {
 				+ "Total time: %s\n"
 				+ "\n"
 				+ "Computation time: %s\n"
-				+ "Energy difference: %s\n", 
+				+ "Energy difference: %s\n"
+				+ "Outcome: %s\n", 
 					getInterpolationType(),
 					getIntegrationType(),
 					getIterations(),
 					getStep(),
 					getTotalTime(),
 					getComputationTime(),
-					getEnergyDifference());
+					getEnergyDifference(),
+					getOutcome());
 	}
 	
 	/**
@@ -644,6 +513,7 @@ public class Trace {
 	// Data
 	public StringProperty getNameProperty() {return name;}
 	public ObjectProperty<File> getFileProperty() {return file;}
+	public ObjectProperty<Integer> getTrackProperty() {return track;}
 	public ObjectProperty<Interpolation> getInterpolationProperty() {return interpolation;}
 	public ObjectProperty<Integration> getIntegrationProperty() {return integration;}
 	public ObjectProperty<Inertia> getInertiaProperty() {return inertia;}
@@ -652,7 +522,11 @@ public class Trace {
 	public ObjectProperty<Double> getMaxXProperty() {return maxX;}
 	public ObjectProperty<Double> getInitVProperty() {return initV;}
 	public ObjectProperty<Double> getStepProperty() {return step;}
+	public ObjectProperty<Double> getToleranceProperty() {return tolerance;}
+	public ObjectProperty<Long> getMaxIterationsProperty() {return maxIterations;}
+	public ObjectProperty<Double> getMaxTimeProperty() {return maxTime;}
 	public BooleanProperty getInitializedProperty() {return initialized;}
+	public BooleanProperty getLoadingProperty() {return loading;}
 	// Details
 	public StringProperty getIntegrationTypeProperty() {return integrationType;}
 	public StringProperty getInterpolationTypeProperty() {return interpolationType;}
@@ -661,6 +535,7 @@ public class Trace {
 	public StringProperty getTotalTimeProperty() {return totalTime;}
 	public StringProperty getComputationTimeProperty() {return computationTime;}
 	public StringProperty getEnergyDifferenceProperty() {return energyDifference;}
+	public StringProperty getOutcomeProperty() {return outcome;}
 	// Progress bar
 	public IntegerProperty getProgressProperty() {return progress;}
 
@@ -670,6 +545,9 @@ public class Trace {
 	// Data
 	public String getName() {return name.get();}
 	public File getFile() {return file.get();}
+	public Integer getTrack() {return track.get();}
+	public ObservableList<Integer> getTracks() {return tracks;}
+	public String getTrackName(int track) {return (track >= 0  &&  track < trackNames.size()) ? trackNames.get(track) : "";}
 	public Interpolation getInterpolation() {return interpolation.get();}
 	public Integration getIntegration() {return integration.get();}
 	public Inertia getInertia() {return inertia.get();}
@@ -678,8 +556,14 @@ public class Trace {
 	public Double getMaxX() {return maxX.get();}
 	public Double getInitV() {return initV.get();}
 	public Double getStep() {return step.get();}
+	public Double getTolerance() {return tolerance.get();}
+	public Long getMaxIterations() {return maxIterations.get();}
+	public Double getMaxTime() {return maxTime.get();}
 	public boolean isInitialized() {return initialized.get();}
+	public boolean isLoading() {return loading.get();}
 	public ObservableMap<String, ObservableList<Double>> getDataMap() {return traceMap;}
+	public double[] getColumn(String key) {return traceResult.getColumn(key);}
+	public Supplier<double[]> getLazyColumn(String key) {return traceResult.getLazyColumn(key);}
 	// Details
 	public String getInterpolationType() {return interpolationType.get();}
 	public String getIntegrationType() {return integrationType.get();}
@@ -688,6 +572,7 @@ public class Trace {
 	public String getTotalTime() {return totalTime.get();}
 	public String getComputationTime() {return computationTime.get();}
 	public String getEnergyDifference() {return energyDifference.get();}
+	public String getOutcome() {return outcome.get();}
 	// Progress bar
 	public Integer getProgress() {return progress.get();}
 	
@@ -697,6 +582,7 @@ public class Trace {
 	// Data
 	public void setName(String name) {this.name.set(name);}
 	public void setFile(File file) {this.file.set(file);}
+	public void setTrack(Integer track) {this.track.set(track);}
 	public void setIntegration(Integration integration) {this.integration.set(integration);}
 	public void setInterpolation(Interpolation interpolation) {this.interpolation.set(interpolation);}
 	public void setInertia(Inertia inertia) {this.inertia.set(inertia);}
@@ -705,7 +591,11 @@ public class Trace {
 	public void setMaxX(Double maxX) {this.maxX.set(maxX);}
 	public void setInitV(Double initV) {this.initV.set(initV);;}
 	public void setStep(Double step) {this.step.set(step);}
+	public void setTolerance(Double tolerance) {this.tolerance.set(tolerance);}
+	public void setMaxIterations(Long maxIterations) {this.maxIterations.set(maxIterations);}
+	public void setMaxTime(Double maxTime) {this.maxTime.set(maxTime);}
 	public void setInitialized(Boolean initialized) { this.initialized.set(initialized);}
+	public void setLoading(Boolean loading) {this.loading.set(loading);}
 	// Details
 	public void setIntegrationType(String integrationType) {this.integrationType.set(integrationType);}
 	public void setInterpolationType(String interpolationType) {this.interpolationType.set(interpolationType);}
@@ -714,6 +604,7 @@ public class Trace {
 	public void setTotalTime(String totalTime) { this.totalTime.set(totalTime);}
 	public void setComputationTime(String computationTime) { this.computationTime.set(computationTime);}
 	public void setEnergyDifference(String energyDifference) { this.energyDifference.set(energyDifference);}
+	public void setOutcome(String outcome) { this.outcome.set(outcome);}
 	// Progress bar
 	public void incrementProgress() {this.progress.set(progress.get() + 1);}
 	public void resetProgress() {this.progress.set(0);}
@@ -734,17 +625,10 @@ public class Trace {
 		//Initialize new trace
 		Trace testTrace = new Trace(name, file, integration, interpolation, inertia, mass, minX, maxX, initV, step);
 		
-		//Perform trace
-		testTrace.trace();
-		
-		//Update results
-		testTrace.updateTrace();
+		//Perform trace and update results
+		testTrace.updateTrace(testTrace.trace());
 		
 		// Print results
 		testTrace.printResults();
-		
-		testTrace.clearCollections();
-		System.out.println("He");
-		
 	}
 }
@@ -0,0 +1,97 @@
+package app;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application wide executor for trace computations, running at most one trace per available core.
+ * Queued traces are started in order of priority, and in order of submission for equal priorities.
+ */
+public class TraceExecutor {
+	// Priorities, lower values are started first
+	public static final int PRIORITY_SELECTED = 0;
+	public static final int PRIORITY_VISIBLE = 1;
+	public static final int PRIORITY_BACKGROUND = 2;
+	// Pool
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+	private static final AtomicInteger threadCount = new AtomicInteger();
+	private static final AtomicLong submissionCount = new AtomicLong();
+	private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+			THREADS, THREADS, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+			runnable -> {
+				// Daemon threads, allowing the application to exit with traces running
+				Thread thread = new Thread(runnable, "Trace worker " + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+	
+	
+	// Constructor
+	private TraceExecutor() {}
+	
+	
+	// Submission
+	/**
+	 * Submits given trace processor with given priority. 
+	 * If a previous computation is given it is cancelled, and removed from the queue if it has not yet started.
+	 */
+	public static Future<?> submit(TraceProcessor processor, int priority, Future<?> previous) {
+		cancel(previous);
+		
+		Task task = new Task(processor, priority);
+		executor.execute(task);
+		return task;
+	}
+	
+	/**
+	 * Cancels given computation, removing it from the queue if it has not yet started.
+	 * Returns {@code true} if the computation was cancelled, else {@code false}.
+	 */
+	public static boolean cancel(Future<?> future) {
+		if (future == null) return false;
+		
+		executor.remove((Runnable) future);
+		return future.cancel(true);
+	}
+	
+	/**
+	 * Moves given computation to given priority, if it is still queued.
+	 * Returns {@code true} if the computation was queued, else {@code false}.
+	 */
+	public static boolean prioritize(Future<?> future, int priority) {
+		if (!(future instanceof Task)) return false;
+		
+		// Priority may only be changed while outside of the queue
+		Task task = (Task) future;
+		if (!executor.remove(task)) return false;
+		task.priority = priority;
+		executor.execute(task);
+		return true;
+	}
+	
+	
+	/**
+	 * Trace computation ordered by priority, then by submission.
+	 */
+	private static class Task extends FutureTask<Void> implements Comparable<Task> {
+		private volatile int priority;
+		private final long sequence;
+		
+		private Task(TraceProcessor processor, int priority) {
+			super(processor, null);
+			this.priority = priority;
+			this.sequence = submissionCount.getAndIncrement();
+		}
+		
+		@Override
+		public int compareTo(Task task) {
+			int comparison = Integer.compare(priority, task.priority);
+			return (comparison != 0) ? comparison : Long.compare(sequence, task.sequence);
+		}
+	}
+}
@@ -1,18 +1,19 @@
 package app;
 
+import java.util.concurrent.CancellationException;
+
 import javafx.application.Platform;
-import javafx.embed.swing.JFXPanel;
+import simulation.SimulationResult;
 
 public class TraceProcessor implements Runnable {
-	//Trace to evaluate
+	//Trace to evaluate, and request number of this computation
 	private Trace trace;
-	
-	//Initialize JFX toolkit
-	private final JFXPanel initToolkit = new JFXPanel();
+	private long request;
 	
 	//Constructor
-	public TraceProcessor(Trace trace) {
+	public TraceProcessor(Trace trace, long request) {
 		this.trace = trace;
+		this.request = request;
 	}
 	
 	@Override
@@ -20,14 +21,39 @@ public class TraceProcessor implements Runnable {
 		//Before lifting, tell me your name :)
 		System.out.println("Processing: " + trace.getName() + " on " + Thread.currentThread());
 		
-		//Do some heavy lifting bruh
-		trace.trace();
+		//Do some heavy lifting bruh, cancelled traces keep their previous results
+		SimulationResult result;
+		try {
+			result = trace.trace(request);
+			if (Thread.currentThread().isInterrupted())
+				throw new CancellationException();
+		} catch (CancellationException e) {
+			System.out.println("Cancelled: " + trace.getName() + " on " + Thread.currentThread());
+			Platform.runLater(() -> {
+				if (trace.isCurrent(request))
+					trace.resetProgress();
+			});
+			return;
+		} catch (RuntimeException e) {
+			//Invalid parameters, unreadable files and failed fits end the trace with their message as outcome
+			System.out.println("Failed: " + trace.getName() + " on " + Thread.currentThread());
+			e.printStackTrace();
+			Platform.runLater(() -> {
+				if (!trace.isCurrent(request)) return;
+				trace.setOutcome(e.getMessage());
+				trace.resetProgress();
+			});
+			return;
+		}
 		
 		//Print finish to console
 		System.out.println("Finished: " + trace.getName() + " on " + Thread.currentThread());
 		
-		//Perform GUI Updates in FX Application Thread
-		Platform.runLater(() -> trace.updateTrace());
+		//Perform GUI Updates in FX Application Thread, unless the trace has been run again since
+		Platform.runLater(() -> {
+			if (trace.isCurrent(request))
+				trace.updateTrace(result);
+		});
 	}
 
 }